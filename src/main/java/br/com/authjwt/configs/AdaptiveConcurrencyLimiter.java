@@ -0,0 +1,119 @@
+package br.com.authjwt.configs;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+AdaptiveConcurrencyLimiter: Limita a quantidade de requisições simultâneas de um grupo de endpoints.
+O limite é ajustado pelo gradiente entre a latência de referência e a latência média do lote mais recente:
+quando a latência recente sobe acima da referência, o limite diminui; quando se mantém próxima dela, o limite cresce gradualmente.
+Referência: menor latência média de lote nas duas últimas janelas, e não a menor latência individual já observada,
+para que uma única requisição rápida (ex.: um usuário em cache) não seja tomada como latência sem carga e derrube o limite
+de um grupo com requisições lentas; as janelas giram, então a referência acompanha mudanças reais no custo das requisições.
+Carga: apenas amostras coletadas com o limite quase atingido ajustam o limite; abaixo disso a latência não diz nada sobre a capacidade.
+Lotes: as amostras são acumuladas sem bloqueio e combinadas a cada `AMOSTRAS_POR_LOTE`; apenas a thread que fecha o lote
+recalcula o limite, sem `synchronized` no caminho de liberação.
+Requisições acima do limite são rejeitadas imediatamente, em vez de aguardarem em fila.
+*/
+
+public class AdaptiveConcurrencyLimiter { // Define um limitador de concorrência adaptativo baseado em gradiente.
+
+    private static final double TOLERANCIA = 1.5; // Quanto a latência pode exceder a referência antes de reduzir o limite.
+    private static final double SUAVIZACAO = 0.2; // Peso do novo limite calculado em relação ao limite atual.
+    private static final double CARGA_MINIMA = 0.8; // Fração do limite que precisa estar em uso para a amostra ser considerada.
+    private static final int AMOSTRAS_POR_LOTE = 10; // Amostras combinadas em cada ajuste do limite.
+    private static final int LOTES_POR_JANELA = 100; // Lotes por janela da referência; um lote atípico deixa de valer após duas janelas.
+
+    private final String grupo; // Nome do grupo de endpoints.
+    private final int limiteMinimo; // Limite mínimo de requisições simultâneas.
+    private final int limiteMaximo; // Limite máximo de requisições simultâneas.
+    private final AtomicInteger emAndamento = new AtomicInteger(); // Requisições em processamento.
+    private final LongAdder rejeicoes = new LongAdder(); // Total de requisições rejeitadas.
+    private final LongAdder somaRtt = new LongAdder(); // Soma das latências do lote atual, em nanossegundos.
+    private final LongAdder amostras = new LongAdder(); // Quantidade de amostras do lote atual.
+    private final AtomicBoolean ajustando = new AtomicBoolean(); // Garante que apenas uma thread ajuste o limite por vez.
+
+    private volatile double limite; // Limite atual, lido sem bloqueio pelo caminho de admissão.
+    // Campos abaixo acessados apenas pela thread que detém `ajustando`.
+    private double menorLoteJanela = Double.MAX_VALUE; // Menor latência média de lote na janela atual, em nanossegundos.
+    private double menorLoteAnterior = Double.MAX_VALUE; // Menor latência média de lote na janela anterior.
+    private int lotesNaJanela; // Lotes já aplicados à janela atual.
+
+    public AdaptiveConcurrencyLimiter(String grupo, int limiteInicial, int limiteMinimo, int limiteMaximo) {
+        this.grupo = grupo;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.limite = Math.max(limiteMinimo, Math.min(limiteInicial, limiteMaximo));
+    }
+
+    public boolean tryAcquire() { // Tenta admitir uma requisição, sem bloquear.
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= (int) limite) {
+                rejeicoes.increment(); // Registra a rejeição.
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) { // Libera a vaga e usa a latência observada para ajustar o limite.
+        int emAndamentoAntes = emAndamento.getAndDecrement();
+        if (emAndamentoAntes < limite * CARGA_MINIMA) {
+            return; // Carga baixa: a latência não reflete a capacidade do serviço.
+        }
+
+        somaRtt.add(rttNanos);
+        amostras.increment();
+        if (amostras.sum() >= AMOSTRAS_POR_LOTE && ajustando.compareAndSet(false, true)) {
+            try {
+                long quantidade = amostras.sumThenReset();
+                long soma = somaRtt.sumThenReset(); // Amostras concorrentes podem cair no lote seguinte; a média é aproximada.
+                if (quantidade > 0) {
+                    atualizarLimite(Math.max(1.0, (double) soma / quantidade));
+                }
+            } finally {
+                ajustando.set(false);
+            }
+        }
+    }
+
+    public void releaseWithoutSample() { // Libera a vaga sem ajustar o limite (ex.: requisição interrompida ou rejeitada).
+        emAndamento.decrementAndGet();
+    }
+
+    private void atualizarLimite(double rttMedio) { // Executado apenas pela thread que fechou o lote.
+        menorLoteJanela = Math.min(menorLoteJanela, rttMedio);
+        double rttReferencia = Math.min(menorLoteJanela, menorLoteAnterior); // Menor média de lote nas duas últimas janelas.
+        if (++lotesNaJanela >= LOTES_POR_JANELA) { // Gira a janela, para acompanhar mudanças reais no custo das requisições.
+            menorLoteAnterior = menorLoteJanela;
+            menorLoteJanela = Double.MAX_VALUE;
+            lotesNaJanela = 0;
+        }
+
+        double atual = limite;
+        double gradiente = Math.max(0.5, Math.min(1.0, TOLERANCIA * rttReferencia / rttMedio)); // Razão entre a latência de referência e a recente.
+        double novoLimite = atual * gradiente + Math.sqrt(atual); // A raiz do limite permite uma pequena fila para sondar capacidade extra.
+        novoLimite = atual * (1 - SUAVIZACAO) + novoLimite * SUAVIZACAO; // Suaviza a variação do limite.
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, novoLimite));
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public int getLimite() {
+        return (int) limite; // Retorna o limite atual.
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get(); // Retorna a quantidade de requisições em processamento.
+    }
+
+    public long getRejeicoes() {
+        return rejeicoes.sum(); // Retorna o total de requisições rejeitadas.
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.authjwt.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.AuthenticationService;
+
+import java.util.Optional;
+import java.util.Set;
+
+
+/*
+AdminBootstrapRunner: Concede o papel ADMINISTRADOR aos usuários listados em `security.bootstrap.admin-emails` durante a inicialização.
+Nenhum endpoint concede papéis, então esta é a forma de criar o primeiro administrador: o usuário se cadastra normalmente,
+o e-mail é adicionado à propriedade e a aplicação é reiniciada. A alteração passa por `AuthenticationService.changeRoles`,
+que incrementa a versão das sessões e grava o `user_change_log`, então os demais nós a aplicam e o usuário precisa fazer login novamente.
+Apenas usuários já cadastrados são promovidos: um e-mail listado que ainda não existe não é reservado, pois qualquer pessoa poderia cadastrá-lo.
+Usuários que já são administradores são ignorados, então reinicializações não revogam suas sessões.
+Alternativa manual: `UPDATE usuario SET papeis = papeis | 2, versao_sessao = versao_sessao + 1 WHERE email = ?`
+(sem o registro de alterações, os outros nós só percebem a mudança quando o usuário sai do cache).
+*/
+
+
+@Component // Registra o runner no contexto da aplicação.
+public class AdminBootstrapRunner implements ApplicationRunner { // Define o runner que promove os administradores configurados.
+
+    private static final Logger log = LoggerFactory.getLogger(AdminBootstrapRunner.class);
+
+    private final UserRepository userRepository;
+    private final AuthenticationService authenticationService;
+    private final String[] adminEmails;
+
+    public AdminBootstrapRunner(
+        UserRepository userRepository,
+        AuthenticationService authenticationService,
+        @Value("${security.bootstrap.admin-emails:}") String[] adminEmails
+    ) {
+        this.userRepository = userRepository;
+        this.authenticationService = authenticationService;
+        this.adminEmails = adminEmails;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String email : adminEmails) {
+            if (email.isBlank()) {
+                continue;
+            }
+
+            Optional<Usuario> usuario = userRepository.findByEmail(email.trim());
+            if (usuario.isEmpty()) {
+                log.warn("Admin bootstrap: no user registered with e-mail {}", email.trim());
+                continue;
+            }
+
+            Set<Papel> papeis = usuario.get().getPapeis();
+            if (papeis.add(Papel.ADMINISTRADOR)) { // Falso quando o usuário já é administrador.
+                authenticationService.changeRoles(usuario.get().getEmail(), papeis);
+                log.info("Admin bootstrap: granted {} to {}", Papel.ADMINISTRADOR, usuario.get().getEmail());
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.com.authjwt.configs;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -9,8 +10,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+import br.com.authjwt.observability.TimedPasswordEncoder;
 import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.CredentialVerificationCache;
 
 /*
 @Configuration: Marca esta classe como uma classe de configuração Spring, permitindo que ela seja usada para definir beans no contexto da aplicação.
@@ -18,28 +24,34 @@ import br.com.authjwt.repositories.UserRepository;
 UserDetailsService: Um serviço usado pelo Spring Security para carregar detalhes de um usuário (como credenciais e autoridades) durante a autenticação.
 BCryptPasswordEncoder: Um codificador de senha que aplica o algoritmo BCrypt, que é robusto e amplamente utilizado para segurança de senhas.
 AuthenticationManager: Gerencia o processo de autenticação dentro do Spring Security.
+TimedPasswordEncoder: Decorador que mede o tempo do BCrypt como uma etapa de autenticação (JFR e `Server-Timing`).
+@EnableScheduling: Habilita tarefas agendadas, usadas pelo `UserChangeLogPoller` para ler o registro de alterações de usuários.
 AuthenticationProvider: Um componente que realiza a autenticação, que aqui utiliza o DaoAuthenticationProvider, um provedor de autenticação baseado em DAO (Data Access Object).
+CachingDaoAuthenticationProvider: Extensão do DaoAuthenticationProvider que, quando habilitado, evita repetir o BCrypt para a mesma credencial em uma janela curta.
 */
 
 
 @Configuration // Indica que esta classe contém configurações para o contexto da aplicação Spring.
+@EnableScheduling // Habilita a execução de métodos anotados com `@Scheduled`.
 public class ApplicationConfiguration { // Define uma classe de configuração chamada `ApplicationConfiguration`.
 
     private final UserRepository userRepository; // Declara uma variável final para armazenar a instância do repositório de usuários.
+    private final CredentialVerificationCache credentialVerificationCache; // Declara uma variável final para o cache de verificações de senha.
 
-    public ApplicationConfiguration(UserRepository userRepository) { // Construtor que injeta uma instância do `UserRepository`.
+    public ApplicationConfiguration(UserRepository userRepository, CredentialVerificationCache credentialVerificationCache) { // Construtor que injeta as dependências.
         this.userRepository = userRepository; // Atribui a instância do repositório ao campo `userRepository`.
+        this.credentialVerificationCache = credentialVerificationCache; // Atribui o cache de verificações ao campo correspondente.
     }
 
     @Bean // Define um método que retorna um bean gerenciado pelo Spring.
     UserDetailsService userDetailsService() { // Cria um bean do tipo `UserDetailsService`.
-        return username -> userRepository.findByEmail(username) // Implementa o método que busca um usuário pelo e-mail.
+        return username -> StageTimings.medir(AuthStage.USER_LOOKUP, () -> userRepository.findByEmail(username)) // Busca o usuário pelo e-mail, medindo a consulta.
                 .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Lança uma exceção se o usuário não for encontrado.
     }
 
     @Bean // Define outro bean gerenciado pelo Spring.
-    BCryptPasswordEncoder passwordEncoder() { // Cria um bean do tipo `BCryptPasswordEncoder`.
-        return new BCryptPasswordEncoder(); // Retorna uma nova instância do codificador de senhas `BCryptPasswordEncoder`.
+    PasswordEncoder passwordEncoder() { // Cria um bean do tipo `PasswordEncoder`.
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder()); // Retorna o `BCryptPasswordEncoder` decorado com a medição de tempo.
     }
 
     @Bean // Define um bean gerenciado pelo Spring.
@@ -49,7 +61,7 @@ public class ApplicationConfiguration { // Define uma classe de configuração c
 
     @Bean // Define um bean gerenciado pelo Spring.
     AuthenticationProvider authenticationProvider() { // Cria um bean do tipo `AuthenticationProvider`.
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(); // Instancia um `DaoAuthenticationProvider`.
+        DaoAuthenticationProvider authProvider = new CachingDaoAuthenticationProvider(credentialVerificationCache); // Instancia um `DaoAuthenticationProvider` com cache de verificações.
 
         authProvider.setUserDetailsService(userDetailsService()); // Configura o `UserDetailsService` para o provedor de autenticação.
         authProvider.setPasswordEncoder(passwordEncoder()); // Configura o codificador de senhas `BCryptPasswordEncoder` para o provedor de autenticação.
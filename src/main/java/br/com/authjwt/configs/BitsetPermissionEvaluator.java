@@ -0,0 +1,45 @@
+package br.com.authjwt.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+
+import br.com.authjwt.entities.Permissao;
+
+import java.io.Serializable;
+
+/*
+BitsetPermissionEvaluator: Avalia expressões `hasPermission(...)` usadas em `@PreAuthorize`.
+A permissão é resolvida para o enum `Permissao` e verificada com um teste de bit sobre a máscara da autenticação,
+sem alocação e sem consultas ao banco de dados.
+Nomes de permissão desconhecidos (ex.: erro de digitação em `@PreAuthorize`) negam o acesso e são registrados no log, em vez de gerar um erro 500.
+*/
+
+public class BitsetPermissionEvaluator implements PermissionEvaluator { // Define um avaliador de permissões baseado em máscara de bits.
+
+    private static final Logger log = LoggerFactory.getLogger(BitsetPermissionEvaluator.class);
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return possui(authentication, permission); // O objeto de domínio não é considerado; as permissões são globais.
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return possui(authentication, permission);
+    }
+
+    private boolean possui(Authentication authentication, Object permission) {
+        if (authentication == null || !(authentication.getAuthorities() instanceof Permissao.Autoridades autoridades)) {
+            return false; // Somente autenticações emitidas a partir de um JWT carregam a máscara de permissões.
+        }
+
+        Permissao permissao = permission instanceof Permissao p ? p : Permissao.porNome(String.valueOf(permission)); // Resolve o nome da permissão.
+        if (permissao == null) {
+            log.warn("Unknown permission '{}' in security expression, denying access", permission);
+            return false;
+        }
+        return autoridades.possui(permissao); // Teste de bit.
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.authjwt.configs;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import br.com.authjwt.services.CredentialVerificationCache;
+
+/*
+CachingDaoAuthenticationProvider: `DaoAuthenticationProvider` que consulta o `CredentialVerificationCache` antes do BCrypt.
+As verificações de conta (bloqueada, desativada, expirada) continuam sendo feitas pelo provedor original antes desta etapa,
+portanto um usuário bloqueado nunca é autenticado pelo cache.
+*/
+
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider { // Define o provedor de autenticação com cache de verificações.
+
+    private final CredentialVerificationCache credentialVerificationCache;
+
+    public CachingDaoAuthenticationProvider(CredentialVerificationCache credentialVerificationCache) {
+        this.credentialVerificationCache = credentialVerificationCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(
+        UserDetails userDetails,
+        UsernamePasswordAuthenticationToken authentication
+    ) throws AuthenticationException {
+        Object credenciais = authentication.getCredentials();
+        if (credenciais == null || !credentialVerificationCache.isEnabled()) {
+            super.additionalAuthenticationChecks(userDetails, authentication); // Comportamento original.
+            return;
+        }
+
+        String senha = credenciais.toString();
+        if (credentialVerificationCache.verificar(userDetails.getUsername(), senha, userDetails.getPassword())) {
+            return; // Mesma credencial verificada recentemente: evita o BCrypt.
+        }
+
+        long inicio = System.nanoTime();
+        super.additionalAuthenticationChecks(userDetails, authentication); // Lança `BadCredentialsException` se a senha estiver incorreta.
+        credentialVerificationCache.registrar(userDetails.getUsername(), senha, userDetails.getPassword(), System.nanoTime() - inicio);
+    }
+}
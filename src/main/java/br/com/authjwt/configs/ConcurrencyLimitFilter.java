@@ -0,0 +1,123 @@
+package br.com.authjwt.configs;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+
+/*
+ConcurrencyLimitFilter: Filtro executado antes do `JwtAuthenticationFilter` que aplica um limite de concorrência adaptativo por grupo de endpoints.
+Grupos: "auth" para `/auth/login` e `/auth/signup` (dominados pelo custo do BCrypt) e "api" para as demais requisições autenticadas.
+Os endpoints do actuator (`/actuator/**`) não passam pelo limitador, para que as sondas de saúde continuem respondendo sob sobrecarga.
+Requisições acima do limite recebem 503 imediatamente, em vez de aguardarem em fila atrás de um banco de dados ou CPU saturados.
+Apenas respostas 2xx ajustam o limite: requisições interrompidas antes do trabalho real (token inválido, acesso negado) seriam amostras rápidas demais.
+Métricas: `auth.concurrency.limit`, `auth.concurrency.inflight` e `auth.concurrency.rejected`, com a tag `group`.
+*/
+
+
+@Component // Marca o filtro como um componente Spring, assim como o `JwtAuthenticationFilter`.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter { // Define um filtro que descarta carga excedente.
+
+    private static final byte[] CORPO_REJEICAO = ( // Corpo pré-serializado, evitando trabalho extra justamente durante a sobrecarga.
+            "{\"type\":\"about:blank\",\"title\":\"Service Unavailable\",\"status\":503," +
+            "\"description\":\"The server is overloaded, please retry later\"}"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled; // Indica se o limitador está ativo.
+    private final AdaptiveConcurrencyLimiter authLimiter; // Limitador dos endpoints de login e cadastro.
+    private final AdaptiveConcurrencyLimiter apiLimiter; // Limitador das demais requisições.
+
+    public ConcurrencyLimitFilter( // Construtor que cria os limitadores a partir da configuração e registra as métricas.
+        MeterRegistry meterRegistry,
+        @Value("${security.concurrency.enabled:true}") boolean enabled,
+        @Value("${security.concurrency.auth.initial-limit:8}") int authInitialLimit,
+        @Value("${security.concurrency.auth.min-limit:2}") int authMinLimit,
+        @Value("${security.concurrency.auth.max-limit:64}") int authMaxLimit,
+        @Value("${security.concurrency.api.initial-limit:50}") int apiInitialLimit,
+        @Value("${security.concurrency.api.min-limit:10}") int apiMinLimit,
+        @Value("${security.concurrency.api.max-limit:400}") int apiMaxLimit
+    ) {
+        this.enabled = enabled;
+        this.authLimiter = new AdaptiveConcurrencyLimiter("auth", authInitialLimit, authMinLimit, authMaxLimit);
+        this.apiLimiter = new AdaptiveConcurrencyLimiter("api", apiInitialLimit, apiMinLimit, apiMaxLimit);
+
+        registrarMetricas(meterRegistry, authLimiter);
+        registrarMetricas(meterRegistry, apiLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) { // Sondas e métricas nunca são descartadas.
+        return request.getRequestURI().startsWith("/actuator/"); // Um 503 na sonda de liveness faria o orquestrador reiniciar uma instância apenas sobrecarregada.
+    }
+
+    @Override
+    protected void doFilterInternal( // Admite ou rejeita a requisição conforme o limite do seu grupo.
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response); // Limitador desativado: segue normalmente.
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiterPara(request); // Seleciona o limitador do grupo da requisição.
+
+        if (!limiter.tryAcquire()) { // Acima do limite: descarta a requisição imediatamente.
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/problem+json");
+            response.getOutputStream().write(CORPO_REJEICAO);
+            return;
+        }
+
+        long inicio = System.nanoTime(); // Marca o início do processamento.
+        boolean concluida = false;
+        try {
+            filterChain.doFilter(request, response); // Continua com o próximo filtro na cadeia.
+            concluida = true;
+        } finally {
+            int status = response.getStatus();
+            if (concluida && status >= 200 && status < 300) {
+                limiter.release(System.nanoTime() - inicio); // Usa a latência observada para ajustar o limite.
+            } else {
+                limiter.releaseWithoutSample(); // Exceções e respostas de erro (401, 403, 400...) não representam a latência real do serviço.
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterPara(HttpServletRequest request) {
+        String uri = request.getRequestURI(); // Caminho da requisição.
+        if (uri.startsWith("/auth/login") || uri.startsWith("/auth/signup")) {
+            return authLimiter;
+        }
+        return apiLimiter;
+    }
+
+    private static void registrarMetricas(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimite)
+                .tag("group", limiter.getGrupo())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("auth.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getEmAndamento)
+                .tag("group", limiter.getGrupo())
+                .description("Requests currently being processed")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejeicoes)
+                .tag("group", limiter.getGrupo())
+                .description("Requests shed with 503 because the limit was reached")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.authjwt.configs;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import br.com.authjwt.entities.Permissao;
+
+/*
+JwtAuthentication: Autenticação criada a partir de um token JWT válido.
+Ao contrário de `UsernamePasswordAuthenticationToken`, que copia as autoridades para uma nova lista a cada requisição,
+esta classe mantém a referência ao conjunto internado `Permissao.Autoridades`, permitindo verificações por teste de bit.
+*/
+
+public class JwtAuthentication implements Authentication { // Define uma autenticação imutável baseada em JWT.
+
+    private final UserDetails principal; // Usuário autenticado.
+    private final Permissao.Autoridades authorities; // Autoridades decodificadas do token.
+    private final Object details; // Detalhes da requisição (endereço remoto, etc.).
+
+    public JwtAuthentication(UserDetails principal, Permissao.Autoridades authorities, Object details) {
+        this.principal = principal;
+        this.authorities = authorities;
+        this.details = details;
+    }
+
+    @Override
+    public Permissao.Autoridades getAuthorities() {
+        return authorities; // Retorna o conjunto internado de autoridades.
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null; // Credenciais não são necessárias após a validação do token.
+    }
+
+    @Override
+    public Object getDetails() {
+        return details;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true; // Só é criada após a validação do token.
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            return;
+        }
+        throw new IllegalArgumentException("JwtAuthentication is immutable");
+    }
+
+    @Override
+    public String getName() {
+        return principal.getUsername();
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication{" +
+                "principal=" + principal.getUsername() +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
@@ -1,11 +1,11 @@
 package br.com.authjwt.configs;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +16,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import br.com.authjwt.services.JwtService;
+import br.com.authjwt.services.TokenRenewalService;
+import br.com.authjwt.services.UserInvalidationRegistry;
 
 import java.io.IOException;
 
@@ -26,6 +28,11 @@ OncePerRequestFilter: Garante que o filtro seja executado apenas uma vez por sol
 @Component: Marca a classe como um componente gerenciado pelo Spring, permitindo que o filtro seja registrado automaticamente no contexto de aplicação.
 HandlerExceptionResolver: Trata as exceções que podem surgir durante o processamento do filtro.
 SecurityContextHolder: Armazena o contexto de segurança, que contém informações de autenticação para a solicitação atual.
+Revogação: Tokens com uma versão de sessão (`ver`) anterior à última troca de senha, alteração de papéis ou remoção do usuário são rejeitados pelo `UserInvalidationRegistry`,
+que também mantém os usuários em memória, evitando uma consulta ao banco de dados por requisição.
+Renovação: Com a sessão deslizante habilitada, um token próximo da expiração é renovado e devolvido no cabeçalho `X-Renewed-Token`.
+Autoridades: As permissões vêm da máscara de bits presente no token e são decodificadas em um conjunto imutável cacheado, sem consultas adicionais.
+Tokens emitidos antes da máscara de permissões (sem `prm`) recebem as autoridades do usuário carregado, até expirarem.
 */
 
 
@@ -34,16 +41,24 @@ SecurityContextHolder: Armazena o contexto de segurança, que contém informaç
 @Component // Anotação que marca esta classe como um componente Spring, permitindo que seja gerenciada pelo Spring Framework e injetada em outros lugares.
 public class JwtAuthenticationFilter extends OncePerRequestFilter { // Define uma classe que estende `OncePerRequestFilter`, garantindo que o filtro seja executado uma vez por solicitação.
 
+    public static final String RENEWED_TOKEN_HEADER = "X-Renewed-Token"; // Cabeçalho de resposta com o token renovado.
+
     private final HandlerExceptionResolver handlerExceptionResolver; // Declara uma variável final para resolver exceções durante o processo de filtragem.
     private final JwtService jwtService; // Declara uma variável final para o serviço que lida com tokens JWT.
     private final UserDetailsService userDetailsService; // Declara uma variável final para o serviço que carrega detalhes do usuário.
+    private final TokenRenewalService tokenRenewalService; // Declara uma variável final para o serviço de renovação de tokens.
+    private final UserInvalidationRegistry userInvalidationRegistry; // Declara uma variável final para o estado de revogação dos usuários.
 
-    public JwtAuthenticationFilter( // Construtor que injeta instâncias do `JwtService`, `UserDetailsService`, e `HandlerExceptionResolver`.
+    public JwtAuthenticationFilter( // Construtor que injeta instâncias do `JwtService`, `UserDetailsService`, `TokenRenewalService`, `UserInvalidationRegistry` e `HandlerExceptionResolver`.
         JwtService jwtService,
         UserDetailsService userDetailsService,
+        TokenRenewalService tokenRenewalService,
+        UserInvalidationRegistry userInvalidationRegistry,
         HandlerExceptionResolver handlerExceptionResolver
     ) {
+        this.userInvalidationRegistry = userInvalidationRegistry; // Atribui a instância do `UserInvalidationRegistry` ao campo correspondente.
         this.jwtService = jwtService; // Atribui a instância do `JwtService` ao campo `jwtService`.
+        this.tokenRenewalService = tokenRenewalService; // Atribui a instância do `TokenRenewalService` ao campo correspondente.
         this.userDetailsService = userDetailsService; // Atribui a instância do `UserDetailsService` ao campo `userDetailsService`.
         this.handlerExceptionResolver = handlerExceptionResolver; // Atribui a instância do `HandlerExceptionResolver` ao campo `handlerExceptionResolver`.
     }
@@ -63,22 +78,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Define um
 
         try {
             final String jwt = authHeader.substring(7); // Extrai o token JWT do cabeçalho (removendo o prefixo "Bearer ").
-            final String userEmail = jwtService.extractUsername(jwt); // Extrai o e-mail do usuário do token JWT.
+            final Claims claims = jwtService.extractAllClaims(jwt); // Faz o parsing e a verificação da assinatura do token uma única vez.
+            final String userEmail = claims.getSubject(); // Extrai o e-mail do usuário do token JWT.
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication(); // Obtém o contexto de autenticação atual.
 
-            if (userEmail != null && authentication == null) { // Verifica se o e-mail de usuário está presente e se ainda não existe autenticação no contexto.
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail); // Carrega os detalhes do usuário pelo e-mail.
+            if (userEmail != null && authentication == null // Verifica se o e-mail de usuário está presente e se ainda não existe autenticação no contexto.
+                    && !userInvalidationRegistry.isRevoked(userEmail, jwtService.extractSessionVersion(claims))) { // Rejeita sessões revogadas, sem consultar o banco.
+                UserDetails userDetails = userInvalidationRegistry.loadUser(userEmail, this.userDetailsService::loadUserByUsername); // Carrega os detalhes do usuário, usando o cache do nó.
 
-                if (jwtService.isTokenValid(jwt, userDetails)) { // Verifica se o token JWT é válido para o usuário.
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                if (jwtService.isTokenValid(claims, userDetails)) { // Verifica se o token JWT é válido para o usuário.
+                    JwtAuthentication authToken = new JwtAuthentication(
                             userDetails, // Detalhes do usuário.
-                            null, // Credenciais, que não são necessárias aqui.
-                            userDetails.getAuthorities() // Autoridades (roles) do usuário.
+                            jwtService.extractAuthorities(claims, userDetails), // Autoridades da máscara de bits do token ou, em tokens antigos, do usuário carregado.
+                            new WebAuthenticationDetailsSource().buildDetails(request) // Detalhes da solicitação.
                     );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request)); // Adiciona detalhes da solicitação ao token de autenticação.
                     SecurityContextHolder.getContext().setAuthentication(authToken); // Define o token de autenticação no contexto de segurança.
+
+                    String renewedToken = tokenRenewalService.renewIfNeeded(claims, userDetails); // Renova o token se estiver próximo da expiração.
+                    if (renewedToken != null) {
+                        response.setHeader(RENEWED_TOKEN_HEADER, renewedToken); // Devolve o novo token antes de a resposta ser enviada.
+                    }
                 }
             }
 
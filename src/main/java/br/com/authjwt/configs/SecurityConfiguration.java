@@ -2,7 +2,11 @@ package br.com.authjwt.configs;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -12,6 +16,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import br.com.authjwt.entities.Permissao;
+
 import java.util.List;
 
 
@@ -21,32 +27,43 @@ import java.util.List;
 SecurityFilterChain: Define a cadeia de filtros que processa as solicitações HTTP e aplica as políticas de segurança configuradas.
 CSRF: Desabilitado aqui, pois a aplicação usa tokens JWT, que não requerem CSRF.
 SessionCreationPolicy.STATELESS: Indica que a aplicação não mantém estado de sessão, o que é comum quando se usa JWT para autenticação.
+`/actuator/**`: Exceto as sondas de saúde, exige a permissão `METRICAS_LER`.
+@EnableMethodSecurity: Ativa a segurança em nível de método (`@PreAuthorize`), usada nos controladores com `hasPermission(...)`.
+MethodSecurityExpressionHandler: Registra o `BitsetPermissionEvaluator`, que verifica permissões com testes de bit.
 CorsConfigurationSource: Configura o CORS (Cross-Origin Resource Sharing), permitindo que a aplicação receba requisições de domínios diferentes.
+O CORS precisa ser habilitado na cadeia de filtros (`cors(...)`); sem isso, o cabeçalho `X-Renewed-Token` não é exposto ao navegador.
 */
 
 
 @Configuration // Indica que esta classe contém definições de configuração para o Spring.
 @EnableWebSecurity // Habilita a configuração de segurança baseada em Web Security no Spring.
+@EnableMethodSecurity // Habilita `@PreAuthorize` nos métodos dos controladores.
 public class SecurityConfiguration { // Define a classe de configuração de segurança.
 
     private final AuthenticationProvider authenticationProvider; // Declara um campo para o provedor de autenticação.
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // Declara um campo para o filtro de autenticação JWT.
+    private final ConcurrencyLimitFilter concurrencyLimitFilter; // Declara um campo para o filtro de limite de concorrência.
 
     public SecurityConfiguration( // Construtor que injeta as dependências necessárias.
         JwtAuthenticationFilter jwtAuthenticationFilter,
+        ConcurrencyLimitFilter concurrencyLimitFilter,
         AuthenticationProvider authenticationProvider
     ) {
         this.authenticationProvider = authenticationProvider; // Atribui o provedor de autenticação ao campo correspondente.
         this.jwtAuthenticationFilter = jwtAuthenticationFilter; // Atribui o filtro JWT ao campo correspondente.
+        this.concurrencyLimitFilter = concurrencyLimitFilter; // Atribui o filtro de limite de concorrência ao campo correspondente.
     }
 
     @Bean // Define um bean gerenciado pelo Spring.
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception { // Configura a cadeia de filtros de segurança.
-        http.csrf() // Configura a proteção contra CSRF (Cross-Site Request Forgery).
+        http.cors(Customizer.withDefaults()) // Aplica o `CorsConfigurationSource` abaixo, inclusive às requisições de preflight.
+                .csrf() // Configura a proteção contra CSRF (Cross-Site Request Forgery).
                 .disable() // Desativa a proteção contra CSRF, já que tokens JWT são usados.
                 .authorizeHttpRequests() // Inicia a configuração de autorização de requisições HTTP.
-                .requestMatchers("/auth/**") // Define padrões de URL que não exigem autenticação.
+                .requestMatchers("/auth/**", "/actuator/health/**") // Define padrões de URL que não exigem autenticação (inclui as sondas de liveness e readiness).
                 .permitAll() // Permite o acesso a todas as requisições que correspondem aos padrões especificados.
+                .requestMatchers("/actuator/**") // Demais endpoints do actuator, como `/actuator/metrics`.
+                .hasAuthority(Permissao.METRICAS_LER.getAuthority().getAuthority()) // Exige a permissão de leitura de métricas.
                 .anyRequest() // Qualquer outra requisição que não corresponda ao padrão acima.
                 .authenticated() // Exige autenticação para todas as outras requisições.
                 .and() // Continuação da configuração HTTP.
@@ -54,11 +71,19 @@ public class SecurityConfiguration { // Define a classe de configuração de seg
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Define a política de criação de sessão como stateless, pois JWT está sendo usado.
                 .and() // Continuação da configuração HTTP.
                 .authenticationProvider(authenticationProvider) // Configura o provedor de autenticação personalizado.
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // Adiciona o filtro JWT antes do filtro de autenticação padrão.
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // Adiciona o filtro JWT antes do filtro de autenticação padrão.
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class); // Descarta carga excedente antes de qualquer trabalho de autenticação.
 
         return http.build(); // Constrói e retorna a cadeia de filtros de segurança.
     }
 
+    @Bean // Define um bean gerenciado pelo Spring para avaliação das expressões de segurança em métodos.
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler(); // Cria o manipulador padrão de expressões.
+        handler.setPermissionEvaluator(new BitsetPermissionEvaluator()); // Usa o avaliador baseado em máscara de bits para `hasPermission(...)`.
+        return handler; // Retorna o manipulador configurado.
+    }
+
     @Bean // Define um bean gerenciado pelo Spring para configuração de CORS.
     CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration(); // Cria uma nova configuração CORS.
@@ -66,6 +91,7 @@ public class SecurityConfiguration { // Define a classe de configuração de seg
         configuration.setAllowedOrigins(List.of("http://localhost:8005")); // Define as origens permitidas para requisições CORS.
         configuration.setAllowedMethods(List.of("GET","POST")); // Define os métodos HTTP permitidos.
         configuration.setAllowedHeaders(List.of("Authorization","Content-Type")); // Define os cabeçalhos HTTP permitidos.
+        configuration.setExposedHeaders(List.of(JwtAuthenticationFilter.RENEWED_TOKEN_HEADER)); // Permite que o navegador leia o token renovado.
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource(); // Cria uma fonte de configuração CORS baseada em URL.
         source.registerCorsConfiguration("/**", configuration); // Registra a configuração CORS para todos os padrões de URL.
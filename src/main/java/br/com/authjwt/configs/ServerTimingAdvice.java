@@ -0,0 +1,53 @@
+package br.com.authjwt.configs;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+
+/*
+ServerTimingAdvice: Executado logo antes da serialização do corpo da resposta.
+Fecha a etapa do controlador, adiciona o cabeçalho `Server-Timing` (quando habilitado) e abre a etapa de serialização,
+que é fechada pelo `ServerTimingFilter`. A serialização aparece apenas no log de requisições lentas e no JFR,
+pois os cabeçalhos já foram enviados quando ela termina.
+*/
+
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ServerTimingFilter serverTimingFilter;
+
+    public ServerTimingAdvice(ServerTimingFilter serverTimingFilter) {
+        this.serverTimingFilter = serverTimingFilter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        StageTimings.encerrar(AuthStage.CONTROLLER); // Também fecha o evento JFR quando a medição está desativada.
+        StageTimings timings = StageTimings.atual();
+        if (timings != null && serverTimingFilter.isServerTimingEnabled()) {
+            response.getHeaders().add("Server-Timing", timings.toServerTiming());
+        }
+        StageTimings.iniciar(AuthStage.SERIALIZATION);
+
+        return body;
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.authjwt.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/*
+ServerTimingFilter: Primeiro filtro da aplicação, responsável por abrir e fechar a medição por etapas (`StageTimings`) de cada requisição.
+A medição só é feita quando o cabeçalho `Server-Timing` está habilitado ou quando o log de requisições lentas está ativo (taxa de amostragem maior que zero).
+Como o tempo total só é conhecido ao fim da requisição, o log de requisições lentas exige medir todas elas; por isso ambos vêm desativados por padrão.
+Requisições acima do limite configurado são registradas, por amostragem, com o detalhamento de cada etapa.
+O cabeçalho em si é escrito pelo `ServerTimingAdvice`, antes da serialização do corpo da resposta.
+*/
+
+
+@Component // Registra o filtro no contêiner de servlets.
+@Order(Ordered.HIGHEST_PRECEDENCE) // Executa antes de todos os outros filtros, inclusive os do Spring Security.
+public class ServerTimingFilter extends OncePerRequestFilter { // Define o filtro de medição por etapas.
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean serverTimingEnabled; // Indica se o cabeçalho `Server-Timing` deve ser enviado.
+    private final long slowThresholdNanos; // Duração a partir da qual uma requisição é considerada lenta.
+    private final double slowSampleRate; // Fração das requisições lentas que é registrada no log.
+
+    public ServerTimingFilter(
+        @Value("${observability.server-timing.enabled:false}") boolean serverTimingEnabled,
+        @Value("${observability.slow-request.threshold-ms:500}") long slowThresholdMillis,
+        @Value("${observability.slow-request.sample-rate:0}") double slowSampleRate
+    ) {
+        this.serverTimingEnabled = serverTimingEnabled;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000L;
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    public boolean isServerTimingEnabled() {
+        return serverTimingEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!serverTimingEnabled && slowSampleRate <= 0) {
+            try {
+                filterChain.doFilter(request, response); // Medição desativada: apenas os eventos JFR são emitidos.
+            } finally {
+                StageTimings.encerrar(AuthStage.SERIALIZATION); // Fecha o evento JFR da serialização, se houver.
+            }
+            return;
+        }
+
+        StageTimings timings = StageTimings.abrir(); // Inicia a medição da requisição.
+        try {
+            filterChain.doFilter(request, response); // Continua com o próximo filtro na cadeia.
+        } finally {
+            StageTimings.encerrar(AuthStage.SERIALIZATION); // Fecha a serialização aberta pelo `ServerTimingAdvice`, se houver.
+            StageTimings.fechar();
+
+            if (timings.getTotalNanos() >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+                log.warn("Slow request {} {} status={} {}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), timings.toServerTiming());
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.authjwt.configs;
+
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.JwtService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+/*
+WarmupRunner: Executa uma fase de aquecimento antes de a aplicação ser considerada pronta.
+ApplicationRunner: O Spring Boot só publica `ReadinessState.ACCEPTING_TRAFFIC` (e `/actuator/health/readiness` só responde UP)
+depois que todos os runners terminam, então o tráfego só chega após o aquecimento.
+Aquecimento: ciclos sintéticos de assinatura e verificação de tokens, verificações BCrypt e consultas `findByEmail`
+executadas em paralelo, o que compila as rotinas quentes no JIT, abre as conexões do pool Hikari e prepara a consulta no Hibernate.
+Requisições HTTP: em seguida, cada thread envia requisições reais para `/actuator/health/liveness` na porta local,
+aquecendo o caminho do Tomcat, da cadeia de filtros do Spring Security, do Spring MVC e do Jackson.
+A sonda foi escolhida porque não lança exceções (um login inválido ou um token de usuário inexistente passariam pelo `GlobalExceptionHandler`)
+e não passa pelo `ConcurrencyLimitFilter`, então o aquecimento não gera amostras para os limitadores.
+O usuário sintético existe apenas em memória: nada é gravado no banco nem nos caches de usuários.
+O aquecimento é apenas uma otimização: falhas são registradas no log e nunca impedem a inicialização.
+A fase é limitada por uma quantidade de iterações e por uma duração máxima.
+*/
+
+
+@Component // Registra o runner no contexto da aplicação.
+public class WarmupRunner implements ApplicationRunner { // Define o runner de aquecimento.
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final String EMAIL_SINTETICO = "warmup@localhost.invalid"; // E-mail que nunca corresponde a um usuário real.
+    private static final String SENHA_SINTETICA = "warmup-password"; // Senha usada apenas nas verificações BCrypt sintéticas.
+    private static final Duration TIMEOUT_HTTP = Duration.ofSeconds(5); // Tempo máximo de cada requisição sintética.
+
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+    private final int passwordIterations;
+    private final int httpIterations;
+    private final int threads;
+    private final long maxDurationMillis;
+
+    public WarmupRunner(
+        JwtService jwtService,
+        PasswordEncoder passwordEncoder,
+        UserRepository userRepository,
+        Environment environment,
+        @Value("${warmup.enabled:true}") boolean enabled,
+        @Value("${warmup.iterations:2000}") int iterations,
+        @Value("${warmup.password-iterations:10}") int passwordIterations,
+        @Value("${warmup.http-iterations:200}") int httpIterations,
+        @Value("${warmup.threads:4}") int threads,
+        @Value("${warmup.max-duration-ms:30000}") long maxDurationMillis
+    ) {
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.passwordIterations = passwordIterations;
+        this.httpIterations = httpIterations;
+        this.threads = Math.max(1, threads);
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis); // Momento limite para o aquecimento.
+        Usuario usuarioSintetico;
+        try {
+            usuarioSintetico = new Usuario().setEmail(EMAIL_SINTETICO).setPassword(passwordEncoder.encode(SENHA_SINTETICA));
+        } catch (RuntimeException e) {
+            log.warn("Warm-up skipped: {}", e.toString());
+            return;
+        }
+
+        Integer porta = environment.getProperty("local.server.port", Integer.class); // Ausente quando não há servidor web (ex.: testes com MockMvc).
+        HttpClient cliente = porta != null && httpIterations > 0 ? HttpClient.newBuilder().connectTimeout(TIMEOUT_HTTP).build() : null;
+        URI sonda = URI.create("http://localhost:" + porta + "/actuator/health/liveness");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads); // Threads paralelas abrem várias conexões do pool.
+        long[] total = new long[4]; // Iterações concluídas de JWT, BCrypt, consultas e requisições HTTP.
+        try {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int indice = t;
+                resultados.add(executor.submit(() -> aquecer(indice, usuarioSintetico, cliente, sonda, prazo)));
+            }
+
+            for (Future<long[]> resultado : resultados) {
+                try {
+                    long[] parcial = resultado.get();
+                    for (int i = 0; i < total.length; i++) {
+                        total[i] += parcial[i];
+                    }
+                } catch (ExecutionException e) {
+                    log.warn("Warm-up worker failed, continuing startup: {}", e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Preserva a interrupção; a inicialização segue sem o restante do aquecimento.
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Warm-up finished in {} ms: {} token cycles, {} password checks, {} user lookups, {} HTTP requests",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), total[0], total[1], total[2], total[3]);
+    }
+
+    private long[] aquecer(int indice, Usuario usuario, HttpClient cliente, URI sonda, long prazo) { // Executa a parte do aquecimento de uma thread.
+        long[] concluidas = new long[4];
+        int porThread = parcela(iterations, indice);
+        int senhasPorThread = parcela(passwordIterations, indice);
+        int requisicoesPorThread = parcela(httpIterations, indice);
+
+        try {
+            for (int i = 0; i < porThread && System.nanoTime() < prazo; i++) {
+                String jwt = jwtService.generateToken(usuario); // Assinatura do token.
+                Claims claims = jwtService.extractAllClaims(jwt); // Parsing e verificação da assinatura.
+                jwtService.isTokenValid(claims, usuario);
+                jwtService.extractAuthorities(claims);
+                concluidas[0]++;
+
+                if (i % 10 == 0) {
+                    userRepository.findByEmail(EMAIL_SINTETICO); // Consulta preparada, sem resultado.
+                    concluidas[2]++;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up token/lookup phase failed: {}", e.toString());
+        }
+
+        try {
+            for (int i = 0; i < senhasPorThread && System.nanoTime() < prazo; i++) {
+                passwordEncoder.matches(SENHA_SINTETICA, usuario.getPassword()); // Verificação BCrypt.
+                concluidas[1]++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up password phase failed: {}", e.toString());
+        }
+
+        if (cliente == null) {
+            return concluidas; // Sem servidor web: o caminho HTTP não é aquecido.
+        }
+
+        HttpRequest liveness = HttpRequest.newBuilder(sonda).timeout(TIMEOUT_HTTP).GET().build();
+
+        try {
+            for (int i = 0; i < requisicoesPorThread && System.nanoTime() < prazo; i++) {
+                cliente.send(liveness, HttpResponse.BodyHandlers.discarding());
+                concluidas[3]++;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-up HTTP phase failed: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return concluidas;
+    }
+
+    private int parcela(int total, int indice) { // Divide o total entre as threads, distribuindo o resto nas primeiras.
+        return total / threads + (indice < total % threads ? 1 : 0);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.authjwt.configs;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+
+/*
+WebConfiguration: Configurações do Spring MVC.
+Registra um interceptador que abre a etapa `AuthStage.CONTROLLER` antes da execução do controlador;
+a etapa é fechada pelo `ServerTimingAdvice`, ou após a conclusão da requisição quando não há corpo de resposta.
+*/
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+                StageTimings.iniciar(AuthStage.CONTROLLER);
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, Exception ex) {
+                StageTimings.encerrar(AuthStage.CONTROLLER); // Sem efeito se o `ServerTimingAdvice` já fechou a etapa.
+            }
+        });
+    }
+}
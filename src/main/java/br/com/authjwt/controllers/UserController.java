@@ -1,13 +1,19 @@
 package br.com.authjwt.controllers;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.responses.UserSummaryResponse;
 import br.com.authjwt.services.UserService;
 
 import java.util.List;
@@ -22,6 +28,7 @@ public class UserController {
     }
 
     @GetMapping("/me")
+    @PreAuthorize("hasPermission(null, 'USUARIOS_LER')")
     public ResponseEntity<Usuario> authenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -31,9 +38,26 @@ public class UserController {
     }
 
     @GetMapping
+    @PreAuthorize("hasPermission(null, 'USUARIOS_LISTAR')")
     public ResponseEntity<List<Usuario>> allUsers() {
         List <Usuario> usuarios = userService.allUsers();
 
         return ResponseEntity.ok(usuarios);
     }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasPermission(null, 'USUARIOS_LISTAR')")
+    public ResponseEntity<Slice<UserSummaryResponse>> searchUsers(
+        @RequestParam("q") String query,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        if (query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query parameter 'q' must not be blank");
+        }
+
+        Slice<UserSummaryResponse> usuarios = userService.search(query, page, size);
+
+        return ResponseEntity.ok(usuarios);
+    }
 }
@@ -0,0 +1,62 @@
+package br.com.authjwt.entities;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/*
+Papel: Registro fixo dos papéis (roles) da aplicação. Cada papel agrupa um conjunto de permissões e ocupa um bit estável,
+permitindo que as atribuições de papéis de um usuário sejam persistidas em uma única coluna da tabela `usuario`,
+sem necessidade de junção com outra tabela ao carregar o usuário.
+*/
+
+public enum Papel { // Define os papéis conhecidos pela aplicação.
+
+    USUARIO(0, Permissao.USUARIOS_LER), // Papel padrão atribuído no cadastro.
+    ADMINISTRADOR(1, Permissao.USUARIOS_LER, Permissao.USUARIOS_LISTAR, Permissao.METRICAS_LER); // Papel com acesso à listagem de usuários e às métricas.
+
+    private static final Papel[] VALORES = values(); // Cópia única do array de valores.
+
+    private final int bit; // Bit que representa este papel na coluna persistida.
+    private final long permissoes; // Máscara das permissões concedidas por este papel.
+
+    Papel(int posicao, Permissao... permissoes) {
+        this.bit = 1 << posicao; // Calcula o bit a partir da posição fixa.
+        this.permissoes = Permissao.mascaraDe(permissoes); // Pré-calcula a máscara de permissões.
+    }
+
+    public int getBit() {
+        return bit; // Retorna o bit do papel.
+    }
+
+    public long getPermissoes() {
+        return permissoes; // Retorna a máscara de permissões do papel.
+    }
+
+    public static Set<Papel> deMascara(int mascara) { // Converte a coluna persistida em um conjunto de papéis.
+        Set<Papel> papeis = EnumSet.noneOf(Papel.class);
+        for (Papel papel : VALORES) {
+            if ((mascara & papel.bit) != 0) {
+                papeis.add(papel);
+            }
+        }
+        return papeis;
+    }
+
+    public static int mascaraDe(Set<Papel> papeis) { // Converte um conjunto de papéis no valor persistido.
+        int mascara = 0;
+        for (Papel papel : papeis) {
+            mascara |= papel.bit;
+        }
+        return mascara;
+    }
+
+    public static long permissoesDe(int mascara) { // Combina as permissões de todos os papéis presentes na máscara.
+        long permissoes = 0L;
+        for (Papel papel : VALORES) {
+            if ((mascara & papel.bit) != 0) {
+                permissoes |= papel.permissoes;
+            }
+        }
+        return permissoes;
+    }
+}
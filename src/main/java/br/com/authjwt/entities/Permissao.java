@@ -0,0 +1,137 @@
+package br.com.authjwt.entities;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+Permissao: Registro fixo das permissões da aplicação. Cada permissão ocupa um bit estável dentro de um `long`,
+permitindo que o conjunto de permissões de um usuário seja transportado no JWT como um único número.
+O bit de cada permissão nunca deve ser reutilizado ou alterado, pois tokens já emitidos dependem dele.
+Autoridades: Conjunto imutável de `GrantedAuthority` decodificado a partir da máscara de bits. As instâncias são
+internadas por máscara, de modo que requisições com as mesmas permissões compartilham o mesmo objeto.
+*/
+
+public enum Permissao { // Define as permissões conhecidas pela aplicação.
+
+    USUARIOS_LER(0, "usuarios:ler"), // Permite consultar o próprio usuário.
+    USUARIOS_LISTAR(1, "usuarios:listar"), // Permite listar todos os usuários.
+    METRICAS_LER(2, "metricas:ler"); // Permite consultar as métricas expostas em `/actuator`.
+
+    private static final Permissao[] VALORES = values(); // Cópia única do array de valores, evitando alocação a cada chamada de `values()`.
+    private static final long TODAS = mascaraDe(VALORES); // Máscara com todos os bits conhecidos.
+    private static final Permissao[] POR_POSICAO = new Permissao[Long.SIZE]; // Tabela de consulta da permissão pela posição do bit.
+    private static final Map<String, Permissao> POR_NOME = new HashMap<>(); // Tabela de consulta da permissão pelo nome da constante.
+    private static final ConcurrentMap<Long, Autoridades> CACHE = new ConcurrentHashMap<>(); // Conjuntos de autoridades já decodificados, indexados pela máscara.
+
+    static {
+        for (Permissao permissao : VALORES) {
+            POR_POSICAO[Long.numberOfTrailingZeros(permissao.bit)] = permissao; // Indexa cada permissão pela posição do seu bit.
+            POR_NOME.put(permissao.name(), permissao); // Indexa cada permissão pelo nome, sem lançar exceção para nomes desconhecidos.
+        }
+    }
+
+    private final long bit; // Bit que representa esta permissão na máscara.
+    private final GrantedAuthority authority; // Autoridade internada correspondente a esta permissão.
+
+    Permissao(int posicao, String nome) {
+        this.bit = 1L << posicao; // Calcula o bit a partir da posição fixa.
+        this.authority = new SimpleGrantedAuthority(nome); // Cria a autoridade uma única vez.
+    }
+
+    public long getBit() {
+        return bit; // Retorna o bit da permissão.
+    }
+
+    public GrantedAuthority getAuthority() {
+        return authority; // Retorna a autoridade internada da permissão.
+    }
+
+    public boolean presenteEm(long mascara) {
+        return (mascara & bit) != 0; // Verifica, com um teste de bit, se a permissão está presente na máscara.
+    }
+
+    public static Permissao porNome(String nome) {
+        return POR_NOME.get(nome); // Retorna a permissão com o nome informado, ou `null` se não existir.
+    }
+
+    public static long mascaraDe(Permissao... permissoes) { // Combina várias permissões em uma única máscara.
+        long mascara = 0L;
+        for (Permissao permissao : permissoes) {
+            mascara |= permissao.bit;
+        }
+        return mascara;
+    }
+
+    public static Autoridades autoridades(long mascara) { // Decodifica a máscara em um conjunto imutável e cacheado de autoridades.
+        return CACHE.computeIfAbsent(mascara & TODAS, Autoridades::new); // Bits desconhecidos são descartados, limitando o tamanho do cache.
+    }
+
+    public static final class Autoridades extends AbstractSet<GrantedAuthority> { // Conjunto imutável de autoridades apoiado por uma máscara de bits.
+
+        private final long mascara; // Máscara de permissões representada por este conjunto.
+        private final int tamanho; // Quantidade de permissões presentes, calculada uma única vez.
+
+        private Autoridades(long mascara) {
+            this.mascara = mascara;
+            this.tamanho = Long.bitCount(mascara);
+        }
+
+        public long getMascara() {
+            return mascara; // Retorna a máscara de bits deste conjunto.
+        }
+
+        public boolean possui(Permissao permissao) {
+            return permissao.presenteEm(mascara); // Verificação de autorização com um único teste de bit.
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Permissao permissao) {
+                return possui(permissao);
+            }
+            if (o instanceof GrantedAuthority authority) { // Compara pelo nome da autoridade, como o restante do Spring Security faz.
+                for (Permissao permissao : VALORES) {
+                    if (permissao.presenteEm(mascara) && permissao.authority.getAuthority().equals(authority.getAuthority())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<GrantedAuthority> iterator() {
+            return new Iterator<>() { // Percorre apenas os bits presentes na máscara.
+                private long restantes = mascara;
+
+                @Override
+                public boolean hasNext() {
+                    return restantes != 0;
+                }
+
+                @Override
+                public GrantedAuthority next() {
+                    if (restantes == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int posicao = Long.numberOfTrailingZeros(restantes); // Localiza o próximo bit presente.
+                    restantes &= restantes - 1; // Remove o bit já visitado.
+                    return POR_POSICAO[posicao].authority; // Consulta direta, sem alocação.
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return tamanho; // Retorna a quantidade de permissões no conjunto.
+        }
+    }
+}
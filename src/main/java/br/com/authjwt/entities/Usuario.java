@@ -7,14 +7,22 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.text.Normalizer;
 import java.util.Collection;
 import java.util.Date;
-import java.util.List;
-
-@Table(name = "usuario") // Define o nome da tabela no banco de dados associada a esta entidade.
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Table(name = "usuario", indexes = { // Define o nome da tabela no banco de dados associada a esta entidade.
+        @Index(name = "idx_usuario_email_normalizado", columnList = "email_normalizado"), // Índice para buscas por prefixo do e-mail.
+        @Index(name = "idx_usuario_nome_normalizado", columnList = "nome_normalizado") // Índice para buscas por prefixo do nome.
+})
 @Entity // Indica que esta classe é uma entidade JPA que será mapeada para uma tabela no banco de dados.
 public class Usuario implements UserDetails { // Define a classe Usuario que implementa a interface UserDetails.
 
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}"); // Acentos separados pela normalização NFD.
+
     @Id // Indica que este campo é a chave primária da entidade.
     @GeneratedValue(strategy = GenerationType.AUTO) // Define a estratégia de geração automática para o ID.
     @Column(nullable = false) // Define que este campo não pode ser nulo.
@@ -26,9 +34,21 @@ public class Usuario implements UserDetails { // Define a classe Usuario que imp
     @Column(unique = true, length = 100, nullable = false) // Define que este campo deve ser único, com um comprimento máximo de 100 caracteres, e não pode ser nulo.
     private String email; // Campo para armazenar o e-mail do usuário.
 
+    @Column(name = "email_normalizado", length = 100) // E-mail normalizado (minúsculo, sem acentos), mantido pela própria entidade.
+    private String emailNormalizado; // Campo usado nas buscas por prefixo.
+
+    @Column(name = "nome_normalizado") // Nome normalizado (minúsculo, sem acentos), mantido pela própria entidade.
+    private String nomeNormalizado; // Campo usado nas buscas por prefixo.
+
     @Column(nullable = false) // Define que este campo não pode ser nulo.
     private String password; // Campo para armazenar a senha do usuário.
 
+    @Column(nullable = false, columnDefinition = "integer default 1") // Papéis atribuídos ao usuário, codificados como máscara de bits (ver `Papel`); o padrão é `Papel.USUARIO`.
+    private int papeis = Papel.USUARIO.getBit(); // Campo para armazenar os papéis do usuário sem necessidade de junção.
+
+    @Column(name = "versao_sessao", nullable = false, columnDefinition = "integer default 0") // Versão das sessões do usuário, transportada nos tokens (ver `JwtService`).
+    private int versaoSessao; // Incrementada a cada alteração que revoga os tokens já emitidos.
+
     @CreationTimestamp // Gera automaticamente um timestamp no momento da criação do registro.
     @Column(updatable = false, name = "criado_em") // Define que este campo não pode ser atualizado após a criação e define o nome da coluna no banco de dados.
     private Date criadoEm; // Campo para armazenar a data de criação do registro.
@@ -37,9 +57,42 @@ public class Usuario implements UserDetails { // Define a classe Usuario que imp
     @Column(name = "atualizado_em") // Define o nome da coluna no banco de dados.
     private Date atualizadoEm; // Campo para armazenar a data de atualização do registro.
 
+    @PrePersist
+    @PreUpdate
+    public void atualizarCamposDeBusca() { // Atualiza as colunas normalizadas antes de inserir ou atualizar o registro.
+        this.emailNormalizado = normalizarBusca(email);
+        this.nomeNormalizado = normalizarBusca(nomeCompleto);
+    }
+
+    public static String normalizarBusca(String valor) { // Normaliza um texto para comparação por prefixo: sem acentos, minúsculo e sem espaços nas pontas.
+        if (valor == null) {
+            return null;
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll(""); // Remove as marcas diacríticas.
+        return semAcentos.trim().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(); // Retorna uma lista vazia de autoridades (nenhum papel ou permissão específico associado).
+        return Permissao.autoridades(Papel.permissoesDe(papeis)); // Retorna o conjunto internado de autoridades derivado dos papéis do usuário.
+    }
+
+    public Set<Papel> getPapeis() {
+        return Papel.deMascara(papeis); // Retorna os papéis atribuídos ao usuário.
+    }
+
+    public Usuario setPapeis(Set<Papel> papeis) {
+        this.papeis = Papel.mascaraDe(papeis); // Define os papéis do usuário e retorna a instância atual da classe.
+        return this;
+    }
+
+    public int getVersaoSessao() {
+        return versaoSessao; // Retorna a versão atual das sessões do usuário.
+    }
+
+    public Usuario setVersaoSessao(int versaoSessao) {
+        this.versaoSessao = versaoSessao; // Define a versão das sessões e retorna a instância atual da classe.
+        return this;
     }
 
     public String getPassword() {
@@ -128,6 +181,8 @@ public class Usuario implements UserDetails { // Define a classe Usuario que imp
                 ", nomeCompleto='" + nomeCompleto + '\'' +
                 ", email='" + email + '\'' +
                 ", password='" + password + '\'' +
+                ", papeis=" + getPapeis() +
+                ", versaoSessao=" + versaoSessao +
                 ", criadoEm=" + criadoEm +
                 ", atualizadoEm=" + atualizadoEm +
                 '}';
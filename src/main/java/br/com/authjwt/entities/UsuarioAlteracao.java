@@ -0,0 +1,95 @@
+package br.com.authjwt.entities;
+
+import jakarta.persistence.*;
+
+/*
+UsuarioAlteracao: Registro da tabela `user_change_log`, onde cada alteração de usuário é anexada (nunca atualizada nem removida).
+sequencia: Número crescente usado pelos nós da aplicação para ler o registro de forma incremental.
+versao: Versão das sessões do usuário após a alteração; tokens com uma versão menor deixam de ser aceitos.
+A revogação compara versões, e não horários, para não depender dos relógios dos nós nem da precisão dos tokens.
+ocorridoEm: Momento da alteração, em milissegundos; usado apenas para localizar o ponto de partida na inicialização.
+*/
+
+@Table(name = "user_change_log", indexes = {
+        @Index(name = "idx_user_change_log_ocorrido_em", columnList = "ocorrido_em"), // Usado para localizar o ponto de partida na inicialização.
+        @Index(name = "idx_user_change_log_email", columnList = "email") // Usado para continuar a versão de um e-mail recadastrado.
+})
+@Entity
+public class UsuarioAlteracao { // Define a entidade do registro de alterações de usuários.
+
+    public enum Tipo { // Tipos de alteração registrados.
+        CRIADO, // Cadastro de um novo usuário (ou recadastro de um e-mail removido).
+        SENHA_ALTERADA, // Troca de senha: sessões anteriores são revogadas.
+        PAPEIS_ALTERADOS, // Alteração de papéis: tokens anteriores carregam permissões desatualizadas.
+        REMOVIDO // Remoção do usuário.
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Sequência gerada pelo banco de dados (auto incremento).
+    @Column(nullable = false)
+    private Long sequencia;
+
+    @Column(length = 100, nullable = false)
+    private String email; // E-mail do usuário alterado.
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Tipo tipo; // Tipo da alteração.
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int versao; // Versão das sessões do usuário após a alteração.
+
+    @Column(name = "ocorrido_em", nullable = false)
+    private long ocorridoEm; // Momento da alteração, em milissegundos desde a época.
+
+    public Long getSequencia() {
+        return sequencia;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UsuarioAlteracao setEmail(String email) {
+        this.email = email;
+        return this;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public UsuarioAlteracao setTipo(Tipo tipo) {
+        this.tipo = tipo;
+        return this;
+    }
+
+    public int getVersao() {
+        return versao;
+    }
+
+    public UsuarioAlteracao setVersao(int versao) {
+        this.versao = versao;
+        return this;
+    }
+
+    public long getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public UsuarioAlteracao setOcorridoEm(long ocorridoEm) {
+        this.ocorridoEm = ocorridoEm;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "UsuarioAlteracao{" +
+                "sequencia=" + sequencia +
+                ", email='" + email + '\'' +
+                ", tipo=" + tipo +
+                ", versao=" + versao +
+                ", ocorridoEm=" + ocorridoEm +
+                '}';
+    }
+}
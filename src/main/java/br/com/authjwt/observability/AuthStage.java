@@ -0,0 +1,25 @@
+package br.com.authjwt.observability;
+
+/*
+AuthStage: Etapas medidas durante o processamento de uma requisição.
+O nome de cada etapa é usado no cabeçalho `Server-Timing`, no log de requisições lentas e nos eventos JFR.
+*/
+
+public enum AuthStage { // Define as etapas de autenticação instrumentadas.
+
+    JWT("jwt"), // Assinatura e parsing de tokens no `JwtService`.
+    USER_LOOKUP("user"), // Carregamento do usuário pelo `UserDetailsService` (`findByEmail`).
+    PASSWORD("bcrypt"), // Codificação e verificação de senhas pelo `PasswordEncoder`.
+    CONTROLLER("controller"), // Execução do método do controlador, incluindo as etapas aninhadas.
+    SERIALIZATION("serialization"); // Serialização do corpo da resposta.
+
+    private final String nome; // Nome curto da etapa.
+
+    AuthStage(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome; // Retorna o nome curto da etapa.
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.authjwt.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+AuthStageEvent: Evento customizado do Java Flight Recorder emitido ao final de cada etapa de autenticação.
+Quando nenhuma gravação JFR está ativa, `shouldCommit()` retorna falso e o evento não tem custo além da criação do objeto,
+que o JIT normalmente elimina. Gravações contínuas podem filtrar o evento pelo nome `br.com.authjwt.AuthStage`.
+*/
+
+@Name("br.com.authjwt.AuthStage")
+@Label("Authentication Stage")
+@Category({"Auth API"})
+@Description("Duration of a single authentication stage (JWT, user lookup, BCrypt, controller, serialization)")
+@StackTrace(false) // Pilhas de chamadas não são necessárias e aumentariam o custo do evento.
+public class AuthStageEvent extends jdk.jfr.Event { // Define o evento JFR das etapas de autenticação.
+
+    @Label("Stage")
+    String stage; // Nome da etapa medida.
+}
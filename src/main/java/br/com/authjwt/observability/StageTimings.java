@@ -0,0 +1,125 @@
+package br.com.authjwt.observability;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/*
+StageTimings: Acumula, por requisição, o tempo gasto em cada `AuthStage`.
+A instância da requisição atual fica em um `ThreadLocal`, criada pelo `ServerTimingFilter` apenas quando o cabeçalho
+`Server-Timing` ou o log de requisições lentas estão ativos. Os eventos JFR são emitidos independentemente disso:
+os eventos abertos por `iniciar` ficam em um `ThreadLocal` próprio, usado apenas quando uma gravação JFR habilita o evento.
+medir: Executa uma ação síncrona dentro de uma etapa.
+iniciar/encerrar: Medem etapas que começam e terminam em pontos diferentes (controlador e serialização).
+*/
+
+public final class StageTimings { // Define o acumulador de tempos por etapa.
+
+    private static final AuthStage[] ETAPAS = AuthStage.values(); // Cópia única do array de etapas.
+    private static final ThreadLocal<StageTimings> ATUAL = new ThreadLocal<>(); // Tempos da requisição em andamento nesta thread.
+    private static final ThreadLocal<AuthStageEvent[]> EVENTOS = new ThreadLocal<>(); // Eventos JFR das etapas abertas por `iniciar` nesta thread.
+
+    private final long inicio = System.nanoTime(); // Início da requisição.
+    private final long[] duracoes = new long[ETAPAS.length]; // Tempo acumulado por etapa, em nanossegundos.
+    private final long[] inicios = new long[ETAPAS.length]; // Início das etapas abertas por `iniciar`.
+    private final boolean[] abertas = new boolean[ETAPAS.length]; // Etapas abertas por `iniciar` e ainda não encerradas.
+
+    private StageTimings() {
+    }
+
+    public static StageTimings abrir() { // Inicia a medição da requisição atual.
+        StageTimings timings = new StageTimings();
+        ATUAL.set(timings);
+        return timings;
+    }
+
+    public static void fechar() { // Encerra a medição da requisição atual.
+        ATUAL.remove();
+    }
+
+    public static StageTimings atual() {
+        return ATUAL.get(); // Retorna os tempos da requisição atual, ou `null` quando a medição está desativada.
+    }
+
+    public static <T> T medir(AuthStage etapa, Supplier<T> acao) { // Executa a ação e registra sua duração na etapa informada.
+        AuthStageEvent evento = new AuthStageEvent();
+        long inicio = System.nanoTime();
+        evento.begin();
+        try {
+            return acao.get();
+        } finally {
+            evento.end();
+            StageTimings timings = ATUAL.get();
+            if (timings != null) {
+                timings.duracoes[etapa.ordinal()] += System.nanoTime() - inicio; // Acumula, pois uma etapa pode ocorrer mais de uma vez.
+            }
+            if (evento.shouldCommit()) { // Só grava quando uma gravação JFR está ativa.
+                evento.stage = etapa.getNome();
+                evento.commit();
+            }
+        }
+    }
+
+    public static void iniciar(AuthStage etapa) { // Abre uma etapa na requisição atual.
+        StageTimings timings = ATUAL.get();
+        if (timings != null) {
+            timings.inicios[etapa.ordinal()] = System.nanoTime();
+            timings.abertas[etapa.ordinal()] = true;
+        }
+
+        AuthStageEvent evento = new AuthStageEvent();
+        if (evento.isEnabled()) { // Uma gravação JFR habilita o evento, com ou sem medição da requisição.
+            AuthStageEvent[] eventos = EVENTOS.get();
+            if (eventos == null) {
+                eventos = new AuthStageEvent[ETAPAS.length];
+                EVENTOS.set(eventos); // Um array por thread, reutilizado entre requisições.
+            }
+            evento.begin();
+            eventos[etapa.ordinal()] = evento;
+        }
+    }
+
+    public static void encerrar(AuthStage etapa) { // Fecha uma etapa aberta por `iniciar`; sem efeito se ela não foi aberta.
+        StageTimings timings = ATUAL.get();
+        if (timings != null && timings.abertas[etapa.ordinal()]) {
+            timings.abertas[etapa.ordinal()] = false;
+            timings.duracoes[etapa.ordinal()] += System.nanoTime() - timings.inicios[etapa.ordinal()];
+        }
+
+        AuthStageEvent[] eventos = EVENTOS.get();
+        if (eventos == null || eventos[etapa.ordinal()] == null) {
+            return; // Nenhum evento JFR aberto para a etapa.
+        }
+        AuthStageEvent evento = eventos[etapa.ordinal()];
+        eventos[etapa.ordinal()] = null;
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.stage = etapa.getNome();
+            evento.commit();
+        }
+    }
+
+    public long getTotalNanos() {
+        return System.nanoTime() - inicio; // Tempo decorrido desde o início da requisição.
+    }
+
+    public String toServerTiming() { // Formata os tempos no padrão do cabeçalho `Server-Timing`.
+        StringBuilder builder = new StringBuilder(96);
+        for (AuthStage etapa : ETAPAS) {
+            long duracao = duracoes[etapa.ordinal()];
+            if (duracao > 0) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(etapa.getNome()).append(";dur=").append(paraMillis(duracao));
+            }
+        }
+        if (builder.length() > 0) {
+            builder.append(", ");
+        }
+        return builder.append("total;dur=").append(paraMillis(getTotalNanos())).toString();
+    }
+
+    private static String paraMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0); // Milissegundos com precisão de microssegundos.
+    }
+}
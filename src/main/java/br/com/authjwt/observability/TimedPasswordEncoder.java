@@ -0,0 +1,32 @@
+package br.com.authjwt.observability;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/*
+TimedPasswordEncoder: Decorador de `PasswordEncoder` que mede as operações de codificação e verificação de senha
+como a etapa `AuthStage.PASSWORD`, sem alterar o comportamento do codificador original.
+*/
+
+public class TimedPasswordEncoder implements PasswordEncoder { // Define um codificador de senhas instrumentado.
+
+    private final PasswordEncoder delegate; // Codificador real (BCrypt).
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return StageTimings.medir(AuthStage.PASSWORD, () -> delegate.encode(rawPassword)); // Mede a codificação da senha.
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return StageTimings.medir(AuthStage.PASSWORD, () -> delegate.matches(rawPassword, encodedPassword)); // Mede a verificação da senha.
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.authjwt.repositories;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.com.authjwt.entities.UsuarioAlteracao;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserChangeLogRepository extends CrudRepository<UsuarioAlteracao, Long> {
+    List<UsuarioAlteracao> findTop500BySequenciaGreaterThanOrderBySequenciaAsc(Long sequencia);
+
+    Optional<UsuarioAlteracao> findFirstByOcorridoEmGreaterThanEqualOrderBySequenciaAsc(long ocorridoEm);
+
+    Optional<UsuarioAlteracao> findTopByOrderBySequenciaDesc();
+
+    Optional<UsuarioAlteracao> findTopByEmailOrderBySequenciaDesc(String email);
+}
@@ -1,13 +1,28 @@
 package br.com.authjwt.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.responses.UserSummaryResponse;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends CrudRepository<Usuario, Integer> {
     Optional<Usuario> findByEmail(String email);
+
+    @Query("select new br.com.authjwt.responses.UserSummaryResponse(u.id, u.nomeCompleto, u.email) from Usuario u"
+            + " where u.emailNormalizado like ?#{escape([0])}% escape ?#{escapeCharacter()}"
+            + " order by u.emailNormalizado asc")
+    Slice<UserSummaryResponse> findByEmailNormalizadoStartingWith(String emailPrefix, Pageable pageable);
+
+    @Query("select new br.com.authjwt.responses.UserSummaryResponse(u.id, u.nomeCompleto, u.email) from Usuario u"
+            + " where u.nomeNormalizado like ?#{escape([0])}% escape ?#{escapeCharacter()}"
+            + " and u.emailNormalizado not like ?#{escape([0])}% escape ?#{escapeCharacter()}"
+            + " order by u.nomeNormalizado asc, u.id asc")
+    Slice<UserSummaryResponse> findByNomeNormalizadoStartingWithExcludingEmailPrefix(String prefix, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package br.com.authjwt.responses;
+
+public class UserSummaryResponse {
+    private final Integer id;
+
+    private final String nomeCompleto;
+
+    private final String email;
+
+    public UserSummaryResponse(Integer id, String nomeCompleto, String email) {
+        this.id = id;
+        this.nomeCompleto = nomeCompleto;
+        this.email = email;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNomeCompleto() {
+        return nomeCompleto;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummaryResponse{" +
+                "id=" + id +
+                ", nomeCompleto='" + nomeCompleto + '\'' +
+                ", email='" + email + '\'' +
+                '}';
+    }
+}
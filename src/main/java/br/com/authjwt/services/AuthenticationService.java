@@ -4,14 +4,19 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.authjwt.dtos.LoginUserDto;
 import br.com.authjwt.dtos.RegisterUserDto;
+import br.com.authjwt.entities.Papel;
 import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.entities.UsuarioAlteracao;
+import br.com.authjwt.repositories.UserChangeLogRepository;
 import br.com.authjwt.repositories.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /*
 @Service: Indica que a classe é um serviço Spring, um componente especializado em lógica de negócios. Essa classe pode ser injetada em outros componentes do Spring.
@@ -19,6 +24,9 @@ AuthenticationService: Esta classe fornece funcionalidades de autenticação e g
 signup: Método que registra um novo usuário codificando a senha e salvando o usuário no repositório.
 authenticate: Método que autentica um usuário verificando as credenciais fornecidas e retornando o usuário correspondente.
 allUsers: Método que retorna uma lista de todos os usuários presentes no banco de dados.
+changePassword, changeRoles, delete: Alterações de usuários que revogam as sessões existentes, incrementando a versão das sessões do usuário.
+signup: Um e-mail removido e recadastrado continua a partir da última versão registrada, para que tokens da conta anterior não sejam aceitos.
+user_change_log: Toda alteração de usuário é anexada ao registro de alterações na mesma transação, para que todos os nós da aplicação a apliquem.
 */
 
 
@@ -30,24 +38,74 @@ public class AuthenticationService { // Define uma classe de serviço chamada `A
     private final UserRepository userRepository; // Declara um campo final para o repositório de usuários.
     private final PasswordEncoder passwordEncoder; // Declara um campo final para o codificador de senhas.
     private final AuthenticationManager authenticationManager; // Declara um campo final para o gerenciador de autenticação.
+    private final UserChangeLogRepository userChangeLogRepository; // Declara um campo final para o registro de alterações de usuários.
 
     public AuthenticationService( // Construtor que injeta as dependências necessárias.
         UserRepository userRepository,
+        UserChangeLogRepository userChangeLogRepository,
         AuthenticationManager authenticationManager,
         PasswordEncoder passwordEncoder
     ) {
         this.authenticationManager = authenticationManager; // Atribui o gerenciador de autenticação ao campo correspondente.
         this.userRepository = userRepository; // Atribui o repositório de usuários ao campo correspondente.
+        this.userChangeLogRepository = userChangeLogRepository; // Atribui o registro de alterações ao campo correspondente.
         this.passwordEncoder = passwordEncoder; // Atribui o codificador de senhas ao campo correspondente.
     }
 
+    @Transactional // O usuário e o registro de alteração são gravados juntos.
     public Usuario signup(RegisterUserDto input) { // Método para registrar um novo usuário.
         var user = new Usuario() // Cria uma nova instância de `Usuario`.
             .setnomeCompleto(input.getnomeCompleto()) // Define o nome completo a partir do DTO de entrada.
             .setEmail(input.getEmail()) // Define o e-mail a partir do DTO de entrada.
-            .setPassword(passwordEncoder.encode(input.getPassword())); // Codifica a senha e a define para o usuário.
+            .setPassword(passwordEncoder.encode(input.getPassword())) // Codifica a senha e a define para o usuário.
+            .setVersaoSessao(userChangeLogRepository.findTopByEmailOrderBySequenciaDesc(input.getEmail()) // Continua a versão de um e-mail já usado.
+                .map(alteracao -> alteracao.getVersao() + 1)
+                .orElse(0));
 
-        return userRepository.save(user); // Salva o usuário no banco de dados e o retorna.
+        Usuario saved = userRepository.save(user); // Salva o usuário no banco de dados.
+        registrarAlteracao(saved.getEmail(), UsuarioAlteracao.Tipo.CRIADO, saved.getVersaoSessao()); // Anexa o cadastro ao registro de alterações.
+
+        return saved; // Retorna o usuário salvo.
+    }
+
+    @Transactional
+    public Usuario changePassword(String email, String newPassword) { // Método para trocar a senha de um usuário, revogando suas sessões.
+        Usuario user = userRepository.findByEmail(email).orElseThrow(); // Busca o usuário pelo e-mail.
+        user.setPassword(passwordEncoder.encode(newPassword)); // Codifica e define a nova senha.
+        user.setVersaoSessao(user.getVersaoSessao() + 1); // Revoga os tokens emitidos com a senha anterior.
+
+        Usuario saved = userRepository.save(user);
+        registrarAlteracao(email, UsuarioAlteracao.Tipo.SENHA_ALTERADA, saved.getVersaoSessao());
+
+        return saved;
+    }
+
+    @Transactional
+    public Usuario changeRoles(String email, Set<Papel> papeis) { // Método para alterar os papéis de um usuário, revogando tokens com permissões antigas.
+        Usuario user = userRepository.findByEmail(email).orElseThrow();
+        user.setPapeis(papeis);
+        user.setVersaoSessao(user.getVersaoSessao() + 1); // Revoga os tokens com as permissões anteriores.
+
+        Usuario saved = userRepository.save(user);
+        registrarAlteracao(email, UsuarioAlteracao.Tipo.PAPEIS_ALTERADOS, saved.getVersaoSessao());
+
+        return saved;
+    }
+
+    @Transactional
+    public void delete(String email) { // Método para remover um usuário, revogando suas sessões.
+        Usuario user = userRepository.findByEmail(email).orElseThrow();
+
+        userRepository.delete(user);
+        registrarAlteracao(email, UsuarioAlteracao.Tipo.REMOVIDO, user.getVersaoSessao() + 1); // Revoga todos os tokens do usuário.
+    }
+
+    private void registrarAlteracao(String email, UsuarioAlteracao.Tipo tipo, int versao) { // Anexa uma alteração ao `user_change_log`.
+        userChangeLogRepository.save(new UsuarioAlteracao()
+            .setEmail(email)
+            .setTipo(tipo)
+            .setVersao(versao)
+            .setOcorridoEm(System.currentTimeMillis()));
     }
 
     public Usuario authenticate(LoginUserDto input) { // Método para autenticar um usuário existente.
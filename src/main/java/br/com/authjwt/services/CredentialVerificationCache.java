@@ -0,0 +1,140 @@
+package br.com.authjwt.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+CredentialVerificationCache: Cache opcional e de curta duração das verificações de senha bem-sucedidas, usado para absorver
+tentativas repetidas de login (ex.: clientes móveis em redes instáveis) sem repetir o BCrypt.
+Chave: HMAC-SHA256 do e-mail e da senha sob um segredo gerado a cada inicialização; nenhuma senha em texto nem hash reutilizável é armazenado.
+Cada entrada também guarda o hash de senha vigente no momento da verificação: se a senha do usuário mudar, a entrada deixa de ser válida.
+Senhas incorretas nunca são aceitas pelo cache: só um HMAC idêntico ao de uma verificação BCrypt bem-sucedida evita o BCrypt.
+Métricas: `auth.login.cache.requests` (tag `result`: hit/miss) e `auth.login.cache.cpu.saved`, estimado pela duração média do BCrypt.
+*/
+
+@Service
+public class CredentialVerificationCache {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final boolean enabled; // Indica se o cache está ativo.
+    private final long ttlNanos; // Tempo de vida de cada entrada.
+    private final int maxEntries; // Quantidade máxima de entradas.
+    private final SecretKeySpec segredo; // Segredo do HMAC, gerado a cada inicialização e nunca persistido.
+    private final ThreadLocal<Mac> macs; // `Mac` não é thread-safe; uma instância por thread evita sincronização.
+    private final ConcurrentMap<String, Entrada> entradas = new ConcurrentHashMap<>(); // Última verificação bem-sucedida por e-mail.
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter cpuEconomizada;
+
+    private volatile double mediaBcryptNanos; // Média móvel da duração do BCrypt, usada para estimar a CPU economizada.
+
+    public CredentialVerificationCache(
+        MeterRegistry meterRegistry,
+        @Value("${security.login-cache.enabled:false}") boolean enabled,
+        @Value("${security.login-cache.ttl-seconds:10}") long ttlSeconds,
+        @Value("${security.login-cache.max-entries:10000}") int maxEntries
+    ) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+
+        byte[] chave = new byte[32];
+        new SecureRandom().nextBytes(chave);
+        this.segredo = new SecretKeySpec(chave, ALGORITMO);
+        this.macs = ThreadLocal.withInitial(this::novoMac);
+
+        this.acertos = Counter.builder("auth.login.cache.requests").tag("result", "hit")
+                .description("Password verifications answered by the cache").register(meterRegistry);
+        this.falhas = Counter.builder("auth.login.cache.requests").tag("result", "miss")
+                .description("Password verifications that required BCrypt").register(meterRegistry);
+        this.cpuEconomizada = Counter.builder("auth.login.cache.cpu.saved").baseUnit("seconds")
+                .description("Estimated BCrypt CPU time saved by cache hits").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean verificar(String email, CharSequence senha, String hashAtual) { // Retorna verdadeiro se a mesma credencial foi verificada recentemente.
+        if (!enabled || senha == null) {
+            return false;
+        }
+
+        Entrada entrada = entradas.get(email);
+        if (entrada == null) {
+            falhas.increment();
+            return false;
+        }
+
+        if (entrada.expiraEm - System.nanoTime() <= 0 || !entrada.hashSenha.equals(hashAtual)) {
+            entradas.remove(email, entrada); // Entrada expirada ou senha alterada desde a verificação.
+            falhas.increment();
+            return false;
+        }
+
+        if (!MessageDigest.isEqual(entrada.mac, calcularMac(email, senha))) { // Comparação em tempo constante.
+            falhas.increment();
+            return false; // Senha diferente da verificada: segue para o BCrypt.
+        }
+
+        acertos.increment();
+        cpuEconomizada.increment(mediaBcryptNanos / 1_000_000_000.0);
+        return true;
+    }
+
+    public void registrar(String email, CharSequence senha, String hashAtual, long duracaoBcryptNanos) { // Registra uma verificação BCrypt bem-sucedida.
+        if (!enabled) {
+            return;
+        }
+
+        double media = mediaBcryptNanos;
+        mediaBcryptNanos = media == 0 ? duracaoBcryptNanos : media * 0.9 + duracaoBcryptNanos * 0.1;
+
+        if (entradas.size() >= maxEntries) {
+            long agora = System.nanoTime();
+            entradas.values().removeIf(e -> e.expiraEm - agora <= 0); // Remove as entradas expiradas antes de desistir.
+            if (entradas.size() >= maxEntries) {
+                return; // Cache cheio: a próxima tentativa apenas executa o BCrypt novamente.
+            }
+        }
+
+        entradas.put(email, new Entrada(calcularMac(email, senha), hashAtual, System.nanoTime() + ttlNanos));
+    }
+
+    public void invalidar(String email) { // Remove a entrada do usuário (ex.: troca de senha, bloqueio ou remoção).
+        entradas.remove(email);
+    }
+
+    private byte[] calcularMac(String email, CharSequence senha) {
+        Mac mac = macs.get();
+        mac.update(email.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0); // Separador, para que ("ab", "c") e ("a", "bc") gerem chaves diferentes.
+        return mac.doFinal(senha.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(segredo);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private record Entrada(byte[] mac, String hashSenha, long expiraEm) {
+    }
+}
@@ -15,18 +15,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import br.com.authjwt.entities.Permissao;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+
 /*
 JwtService: Esta classe lida com a geração, validação e extração de informações dos tokens JWT, que são amplamente usados para autenticação em aplicações sem estado.
 @Value: Injeta valores do arquivo de configuração do Spring, permitindo personalização de chave secreta e tempo de expiração do token.
 extractUsername: Obtém o nome de usuário armazenado no token.
 generateToken: Gera um token JWT para um usuário, podendo adicionar reivindicações extras.
 isTokenValid: Verifica se o token é válido, confirmando que o nome de usuário corresponde e que o token não expirou.
+CLAIM_PERMISSOES: Reivindicação que transporta as permissões do usuário como uma máscara de bits (ver `Permissao`).
+CLAIM_AUTENTICADO_EM: Momento (em segundos) do login original; preservado nas renovações para limitar a duração absoluta da sessão.
+CLAIM_VERSAO_SESSAO: Versão das sessões do usuário no momento do login; tokens com versão menor que a atual do usuário são rejeitados.
+renewToken: Emite um novo token para a mesma sessão, sem exceder o limite absoluto informado.
 getSignInKey: Converte a chave secreta em um objeto Key adequado para assinar tokens JWT usando HMAC.
 */
 
 @Service // Indica que esta classe é um serviço do Spring, usado para lógica de negócios.
 public class JwtService { // Define uma classe de serviço para gerenciar operações relacionadas a JWT (JSON Web Tokens).
 
+    public static final String CLAIM_PERMISSOES = "prm"; // Nome compacto da reivindicação com a máscara de permissões.
+    public static final String CLAIM_AUTENTICADO_EM = "aat"; // Nome compacto da reivindicação com o momento do login original.
+    public static final String CLAIM_VERSAO_SESSAO = "ver"; // Nome compacto da reivindicação com a versão das sessões do usuário.
+
     @Value("${security.jwt.secret-key}") // Injeta o valor da chave secreta do JWT a partir do arquivo de configuração.
     private String secretKey;
 
@@ -47,7 +60,41 @@ public class JwtService { // Define uma classe de serviço para gerenciar opera
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) { // Gera um token JWT com reivindicações extras.
-        return buildToken(extraClaims, userDetails, jwtExpiration); // Constrói o token usando as reivindicações extras, detalhes do usuário e tempo de expiração.
+        Map<String, Object> claims = new HashMap<>(extraClaims); // Copia as reivindicações para não alterar o mapa recebido.
+        if (userDetails.getAuthorities() instanceof Permissao.Autoridades autoridades) { // Codifica as permissões do usuário como máscara de bits.
+            claims.put(CLAIM_PERMISSOES, autoridades.getMascara());
+        }
+        if (userDetails instanceof Usuario usuario) { // Vincula o token à versão atual das sessões do usuário.
+            claims.put(CLAIM_VERSAO_SESSAO, usuario.getVersaoSessao());
+        }
+        claims.putIfAbsent(CLAIM_AUTENTICADO_EM, System.currentTimeMillis() / 1000); // Registra o momento do login original.
+        return buildToken(claims, userDetails, jwtExpiration); // Constrói o token usando as reivindicações extras, detalhes do usuário e tempo de expiração.
+    }
+
+    public String renewToken(Claims claims, UserDetails userDetails, long maxLifetime) { // Emite um token renovado, preservando o momento do login original.
+        long autenticadoEmMillis = extractAuthenticatedAt(claims); // Momento do login original.
+        long restanteAteLimite = autenticadoEmMillis + maxLifetime - System.currentTimeMillis(); // Tempo restante até o limite absoluto da sessão.
+        if (restanteAteLimite <= 0) {
+            return null; // A sessão atingiu o limite absoluto: um novo login é necessário.
+        }
+
+        Map<String, Object> claimsRenovadas = new HashMap<>();
+        claimsRenovadas.put(CLAIM_AUTENTICADO_EM, autenticadoEmMillis / 1000);
+        claimsRenovadas.put(CLAIM_VERSAO_SESSAO, extractSessionVersion(claims)); // A renovação nunca avança a versão da sessão.
+        if (userDetails.getAuthorities() instanceof Permissao.Autoridades autoridades) { // Usa as permissões atuais do usuário.
+            claimsRenovadas.put(CLAIM_PERMISSOES, autoridades.getMascara());
+        }
+        return buildToken(claimsRenovadas, userDetails, Math.min(jwtExpiration, restanteAteLimite)); // Nunca ultrapassa o limite absoluto.
+    }
+
+    public long extractAuthenticatedAt(Claims claims) { // Retorna o momento do login original, em milissegundos.
+        Number autenticadoEm = claims.get(CLAIM_AUTENTICADO_EM, Number.class);
+        return autenticadoEm != null ? autenticadoEm.longValue() * 1000 : claims.getIssuedAt().getTime(); // Tokens antigos usam a data de emissão.
+    }
+
+    public int extractSessionVersion(Claims claims) { // Retorna a versão das sessões registrada no token.
+        Number versao = claims.get(CLAIM_VERSAO_SESSAO, Number.class);
+        return versao != null ? versao.intValue() : 0; // Tokens antigos correspondem à versão inicial.
     }
 
     public long getExpirationTime() { // Retorna o tempo de expiração configurado para o JWT.
@@ -59,36 +106,51 @@ public class JwtService { // Define uma classe de serviço para gerenciar opera
             UserDetails userDetails, // Detalhes do usuário.
             long expiration // Tempo de expiração do token.
     ) {
-        return Jwts
+        return StageTimings.medir(AuthStage.JWT, () -> Jwts // Mede a assinatura do token como a etapa JWT.
                 .builder() // Cria um builder para construir o token JWT.
                 .setClaims(extraClaims) // Define as reivindicações do token.
                 .setSubject(userDetails.getUsername()) // Define o nome de usuário como o sujeito do token.
                 .setIssuedAt(new Date(System.currentTimeMillis())) // Define a data de emissão do token.
                 .setExpiration(new Date(System.currentTimeMillis() + expiration)) // Define a data de expiração do token.
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256) // Assina o token com a chave secreta usando o algoritmo HS256.
-                .compact(); // Compacta e retorna o token JWT como uma string.
+                .compact()); // Compacta e retorna o token JWT como uma string.
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) { // Verifica se o token JWT é válido para o usuário fornecido.
-        final String username = extractUsername(token); // Extrai o nome de usuário do token.
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token); // Verifica se o nome de usuário corresponde e se o token não expirou.
+        return isTokenValid(extractAllClaims(token), userDetails); // Faz o parsing do token uma única vez e valida as reivindicações.
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) { // Verifica reivindicações já extraídas, evitando um novo parsing do token.
+        final String username = claims.getSubject(); // Obtém o nome de usuário das reivindicações.
+        return (username.equals(userDetails.getUsername())) && !claims.getExpiration().before(new Date()) // Verifica se o nome de usuário corresponde e se o token não expirou.
+                && !(userDetails instanceof Usuario usuario && extractSessionVersion(claims) < usuario.getVersaoSessao()); // Rejeita tokens de sessões já revogadas.
     }
 
-    private boolean isTokenExpired(String token) { // Verifica se o token JWT expirou.
-        return extractExpiration(token).before(new Date()); // Compara a data de expiração do token com a data atual.
+    public Permissao.Autoridades extractAuthorities(Claims claims) { // Decodifica a máscara de permissões em um conjunto cacheado de autoridades.
+        Number mascara = claims.get(CLAIM_PERMISSOES, Number.class); // Tokens antigos podem não possuir a reivindicação.
+        return Permissao.autoridades(mascara == null ? 0L : mascara.longValue());
     }
 
-    private Date extractExpiration(String token) { // Extrai a data de expiração do token JWT.
-        return extractClaim(token, Claims::getExpiration); // Usa o método `extractClaim` para obter a data de expiração.
+    public Permissao.Autoridades extractAuthorities(Claims claims, UserDetails userDetails) { // Usa as autoridades do usuário carregado quando o token não possui a máscara.
+        Number mascara = claims.get(CLAIM_PERMISSOES, Number.class);
+        if (mascara != null) {
+            return Permissao.autoridades(mascara.longValue());
+        }
+
+        if (userDetails.getAuthorities() instanceof Permissao.Autoridades autoridades) {
+            return autoridades; // Tokens emitidos antes da máscara recebem as permissões atuais do usuário.
+        }
+
+        return Permissao.autoridades(0L);
     }
 
-    private Claims extractAllClaims(String token) { // Extrai todas as reivindicações (claims) do token JWT.
-        return Jwts
+    public Claims extractAllClaims(String token) { // Extrai todas as reivindicações (claims) do token JWT.
+        return StageTimings.medir(AuthStage.JWT, () -> Jwts // Mede o parsing do token como a etapa JWT.
                 .parserBuilder() // Cria um builder para o parser do JWT.
                 .setSigningKey(getSignInKey()) // Define a chave de assinatura para o parser.
                 .build() // Constrói o parser.
                 .parseClaimsJws(token) // Faz o parsing do token e extrai as reivindicações.
-                .getBody(); // Retorna o corpo das reivindicações.
+                .getBody()); // Retorna o corpo das reivindicações.
     }
 
     private Key getSignInKey() { // Retorna a chave secreta usada para assinar o token JWT.
@@ -0,0 +1,107 @@
+package br.com.authjwt.services;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+TokenRenewalService: Implementa a sessão deslizante opcional.
+Quando um token válido está na fração final da sua validade, um novo token é emitido pelo `JwtService`,
+permitindo que usuários ativos continuem autenticados sem repetir o login (e o BCrypt).
+As renovações são limitadas por usuário (um intervalo mínimo entre renovações) e a sessão tem uma duração absoluta máxima,
+contada a partir do login original, que é transportado no token pela reivindicação `aat`.
+Limitador: as renovações são registradas em janelas com a duração do intervalo mínimo; apenas a janela atual e a anterior são mantidas,
+então as entradas antigas são descartadas de uma só vez, sem varrer o mapa, e a memória fica limitada às renovações recentes.
+*/
+
+@Service
+public class TokenRenewalService {
+
+    private static final int MAX_SUBJECTS = 100_000; // Quantidade máxima de usuários acompanhados pelo limitador em uma janela.
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final double renewFraction;
+    private final long maxLifetime;
+    private final long minIntervalMillis;
+    private volatile Janela janela = new Janela(System.currentTimeMillis(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>()); // Renovações recentes por usuário, em milissegundos.
+
+    public TokenRenewalService(
+        JwtService jwtService,
+        @Value("${security.jwt.sliding.enabled:false}") boolean enabled,
+        @Value("${security.jwt.sliding.renew-fraction:0.25}") double renewFraction,
+        @Value("${security.jwt.sliding.max-lifetime:604800000}") long maxLifetime,
+        @Value("${security.jwt.sliding.min-interval:60000}") long minIntervalMillis
+    ) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.renewFraction = renewFraction;
+        this.maxLifetime = maxLifetime;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    public String renewIfNeeded(Claims claims, UserDetails userDetails) { // Retorna um token renovado, ou `null` se não houver renovação.
+        if (!enabled) {
+            return null;
+        }
+
+        long agora = System.currentTimeMillis();
+        long restante = claims.getExpiration().getTime() - agora; // Validade restante do token atual.
+        if (restante > jwtService.getExpirationTime() * renewFraction) {
+            return null; // Ainda longe da expiração.
+        }
+
+        if (jwtService.extractAuthenticatedAt(claims) + maxLifetime <= agora) {
+            return null; // Limite absoluto da sessão atingido.
+        }
+
+        if (!permitirRenovacao(claims.getSubject(), agora)) {
+            return null; // Renovação recente para o mesmo usuário.
+        }
+
+        return jwtService.renewToken(claims, userDetails, maxLifetime);
+    }
+
+    private boolean permitirRenovacao(String subject, long agora) {
+        Janela atual = janelaAtual(agora);
+        Long anterior = atual.anteriores().get(subject);
+        if (anterior != null && agora - anterior < minIntervalMillis) {
+            return false; // Renovado no fim da janela anterior.
+        }
+        if (atual.renovacoes().size() >= MAX_SUBJECTS) {
+            return false; // Limite de memória atingido: a renovação fica para a próxima janela, e o token atual continua válido.
+        }
+
+        boolean[] permitida = new boolean[1];
+        atual.renovacoes().compute(subject, (chave, ultima) -> {
+            if (ultima != null && agora - ultima < minIntervalMillis) {
+                return ultima;
+            }
+            permitida[0] = true;
+            return agora;
+        });
+        return permitida[0];
+    }
+
+    private Janela janelaAtual(long agora) { // Retorna a janela atual, iniciando uma nova quando a anterior completou o intervalo mínimo.
+        Janela atual = janela;
+        if (agora - atual.inicio() < minIntervalMillis) {
+            return atual;
+        }
+        synchronized (this) {
+            atual = janela;
+            if (agora - atual.inicio() >= minIntervalMillis) {
+                atual = new Janela(agora, new ConcurrentHashMap<>(), atual.renovacoes()); // As renovações de duas janelas atrás já saíram do intervalo.
+                janela = atual;
+            }
+            return atual;
+        }
+    }
+
+    private record Janela(long inicio, ConcurrentMap<String, Long> renovacoes, ConcurrentMap<String, Long> anteriores) { // Renovações da janela atual e da anterior.
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.authjwt.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.authjwt.entities.UsuarioAlteracao;
+import br.com.authjwt.repositories.UserChangeLogRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+UserChangeLogPoller: Lê o `user_change_log` de forma incremental, pela sequência, e aplica as alterações no `UserInvalidationRegistry` deste nó.
+Inicialização: começa pela primeira alteração ainda capaz de afetar um token válido (dentro da duração máxima de uma sessão), antes de a aplicação ficar pronta.
+Expiração: pelo mesmo horizonte, as revogações mais antigas são descartadas do registro a cada minuto, para que ele não cresça indefinidamente.
+Lacunas: uma sequência menor pode ser confirmada depois de uma maior (transações concorrentes); sequências ausentes são consultadas novamente
+por um tempo limitado, após o qual são consideradas transações desfeitas.
+*/
+
+@Service
+public class UserChangeLogPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeLogPoller.class);
+    private static final int TAMANHO_LOTE = 500; // Deve corresponder ao `findTop500...` do repositório.
+    private static final int MAX_LACUNA = 1000; // Saltos maiores não são lacunas de transações concorrentes (ex.: reinício do auto incremento).
+    private static final long MARGEM_RELOGIO = 300_000; // Folga para diferenças de relógio entre os nós que gravaram o registro.
+    private static final long INTERVALO_EXPIRACAO = 60_000; // Intervalo entre as limpezas das revogações antigas do registro.
+
+    private final UserChangeLogRepository userChangeLogRepository;
+    private final UserInvalidationRegistry userInvalidationRegistry;
+    private final long sessionHorizonMillis;
+    private final long gapTimeoutMillis;
+    private final Map<Long, Long> lacunas = new HashMap<>(); // Sequências ausentes e o momento em que foram detectadas.
+
+    private long cursor = -1; // Última sequência lida; negativo enquanto a inicialização não ocorreu.
+    private long ultimaExpiracao; // Momento da última limpeza das revogações antigas.
+
+    public UserChangeLogPoller(
+        UserChangeLogRepository userChangeLogRepository,
+        UserInvalidationRegistry userInvalidationRegistry,
+        @Value("${security.jwt.expiration-time}") long jwtExpiration,
+        @Value("${security.jwt.sliding.enabled:false}") boolean slidingEnabled,
+        @Value("${security.jwt.sliding.max-lifetime:604800000}") long slidingMaxLifetime,
+        @Value("${security.invalidation.gap-timeout-ms:60000}") long gapTimeoutMillis
+    ) {
+        this.userChangeLogRepository = userChangeLogRepository;
+        this.userInvalidationRegistry = userInvalidationRegistry;
+        this.sessionHorizonMillis = slidingEnabled ? Math.max(jwtExpiration, slidingMaxLifetime) : jwtExpiration;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void start() { // Define o ponto de partida e carrega as alterações recentes antes de a aplicação ficar pronta.
+        long horizonte = System.currentTimeMillis() - sessionHorizonMillis - MARGEM_RELOGIO; // Alterações anteriores não afetam nenhum token ainda válido.
+        cursor = userChangeLogRepository.findFirstByOcorridoEmGreaterThanEqualOrderBySequenciaAsc(horizonte)
+                .map(alteracao -> alteracao.getSequencia() - 1)
+                .orElseGet(() -> userChangeLogRepository.findTopByOrderBySequenciaDesc().map(UsuarioAlteracao::getSequencia).orElse(0L));
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${security.invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() { // Lê e aplica as alterações posteriores ao cursor.
+        if (cursor < 0) {
+            return; // Ainda não inicializado.
+        }
+
+        try {
+            expirarRevogacoes();
+            verificarLacunas();
+
+            List<UsuarioAlteracao> lote;
+            do {
+                lote = userChangeLogRepository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(cursor);
+                for (UsuarioAlteracao alteracao : lote) {
+                    long agora = System.currentTimeMillis();
+                    if (alteracao.getSequencia() - cursor <= MAX_LACUNA) {
+                        for (long ausente = cursor + 1; ausente < alteracao.getSequencia(); ausente++) {
+                            lacunas.put(ausente, agora); // Sequência pulada: pode ser uma transação ainda não confirmada.
+                        }
+                    }
+                    userInvalidationRegistry.apply(alteracao);
+                    cursor = alteracao.getSequencia();
+                }
+            } while (lote.size() == TAMANHO_LOTE);
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll user_change_log after sequence {}", cursor, e); // Tenta novamente no próximo ciclo.
+        }
+    }
+
+    private void expirarRevogacoes() {
+        long agora = System.currentTimeMillis();
+        if (agora - ultimaExpiracao < INTERVALO_EXPIRACAO) {
+            return;
+        }
+        ultimaExpiracao = agora;
+        userInvalidationRegistry.expirarRevogacoes(agora - sessionHorizonMillis - MARGEM_RELOGIO); // Mesmo horizonte usado na inicialização.
+    }
+
+    private void verificarLacunas() {
+        if (lacunas.isEmpty()) {
+            return;
+        }
+
+        for (UsuarioAlteracao alteracao : userChangeLogRepository.findAllById(lacunas.keySet())) {
+            userInvalidationRegistry.apply(alteracao); // Transação confirmada depois de uma sequência maior.
+            lacunas.remove(alteracao.getSequencia());
+        }
+
+        long limite = System.currentTimeMillis() - gapTimeoutMillis;
+        lacunas.values().removeIf(detectadaEm -> detectadaEm < limite); // Sequências nunca confirmadas (transações desfeitas).
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.authjwt.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import br.com.authjwt.entities.UsuarioAlteracao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/*
+UserInvalidationRegistry: Estado em memória, por nó, alimentado pelo registro de alterações (`user_change_log`).
+versaoMinima: Para cada usuário, a versão das sessões registrada na última alteração; tokens com versão menor são rejeitados em O(1).
+Revogações mais antigas que a duração máxima de uma sessão são descartadas por `expirarRevogacoes`, pois nenhum token emitido antes delas ainda é válido.
+usuarios: Cache dos usuários carregados pelo `JwtAuthenticationFilter`, evitando um `findByEmail` por requisição, com validade limitada.
+Qualquer alteração recebida pelo registro descarta o usuário do cache, e a próxima requisição o carrega novamente do banco.
+geracoes: Contador de alterações por faixa de e-mails. Um carregamento que começou antes de uma alteração não é mantido no cache,
+evitando que um usuário desatualizado, lido antes da alteração, seja colocado de volta no cache depois que ela foi aplicada.
+*/
+
+@Service
+public class UserInvalidationRegistry {
+
+    private static final int FAIXAS = 1024; // Quantidade de contadores de geração; e-mails na mesma faixa apenas compartilham invalidações.
+
+    private final ConcurrentMap<String, Revogacao> versaoMinima = new ConcurrentHashMap<>(); // Menor versão de sessão aceita por e-mail.
+    private final ConcurrentMap<String, Entrada> usuarios = new ConcurrentHashMap<>(); // Usuários já carregados por e-mail.
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS); // Alterações aplicadas por faixa de e-mails.
+    private final CredentialVerificationCache credentialVerificationCache;
+    private final int maxCachedUsers;
+    private final long ttlNanos;
+
+    public UserInvalidationRegistry(
+        CredentialVerificationCache credentialVerificationCache,
+        @Value("${security.invalidation.max-cached-users:10000}") int maxCachedUsers,
+        @Value("${security.invalidation.user-cache-ttl-ms:60000}") long userCacheTtlMillis
+    ) {
+        this.credentialVerificationCache = credentialVerificationCache;
+        this.maxCachedUsers = maxCachedUsers;
+        this.ttlNanos = userCacheTtlMillis * 1_000_000L;
+    }
+
+    public boolean isRevoked(String email, int versaoSessao) { // Verifica se o token pertence a uma versão de sessão já revogada.
+        Revogacao revogacao = versaoMinima.get(email);
+        return revogacao != null && versaoSessao < revogacao.versao();
+    }
+
+    public UserDetails loadUser(String email, Function<String, UserDetails> loader) { // Retorna o usuário do cache ou o carrega do banco.
+        long agora = System.nanoTime();
+        Entrada entrada = usuarios.get(email);
+        if (entrada != null && agora - entrada.carregadoEm() < ttlNanos) {
+            return entrada.usuario();
+        }
+
+        int faixa = faixa(email);
+        long geracao = geracoes.get(faixa); // Lida antes do carregamento.
+        UserDetails usuario = loader.apply(email);
+
+        if (usuarios.size() >= maxCachedUsers) {
+            usuarios.clear(); // Limite simples de memória; os usuários ativos voltam ao cache nas próximas requisições.
+        }
+        Entrada nova = new Entrada(usuario, agora);
+        usuarios.put(email, nova);
+        if (geracoes.get(faixa) != geracao) {
+            usuarios.remove(email, nova); // Uma alteração foi aplicada durante o carregamento: o usuário lido pode estar desatualizado.
+        }
+        return usuario;
+    }
+
+    public void descartar(String email) { // Remove um usuário do cache sem registrar revogação.
+        usuarios.remove(email);
+    }
+
+    public void apply(UsuarioAlteracao alteracao) { // Aplica uma alteração lida do registro; pode ser chamado mais de uma vez para a mesma alteração.
+        String email = alteracao.getEmail();
+        if (alteracao.getVersao() > 0) { // A versão inicial de um e-mail novo não revoga nada.
+            versaoMinima.merge(email, new Revogacao(alteracao.getVersao(), alteracao.getOcorridoEm()), Revogacao::combinar);
+        }
+        credentialVerificationCache.invalidar(email);
+        geracoes.incrementAndGet(faixa(email)); // Antes da remoção, para que carregamentos em andamento não voltem ao cache.
+        usuarios.remove(email);
+    }
+
+    public void expirarRevogacoes(long ocorridasAntesDe) { // Descarta as revogações anteriores ao horizonte das sessões.
+        versaoMinima.values().removeIf(revogacao -> revogacao.ocorridaEm() < ocorridasAntesDe); // Entradas substituídas durante a varredura são mantidas.
+    }
+
+    private static int faixa(String email) {
+        return (email.hashCode() & 0x7fffffff) % FAIXAS;
+    }
+
+    private record Revogacao(int versao, long ocorridaEm) { // Versão mínima aceita e o momento da alteração que a definiu.
+        Revogacao combinar(Revogacao outra) { // Alterações podem chegar fora de ordem: mantém a maior versão e o momento mais recente.
+            return new Revogacao(Math.max(versao, outra.versao), Math.max(ocorridaEm, outra.ocorridaEm));
+        }
+    }
+
+    private record Entrada(UserDetails usuario, long carregadoEm) { // Usuário em cache e o momento do carregamento, em nanossegundos.
+    }
+}
@@ -1,19 +1,52 @@
 package br.com.authjwt.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import br.com.authjwt.entities.Usuario;
 import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.responses.UserSummaryResponse;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 1000; // A busca é um typeahead; páginas além deste ponto não são servidas.
+    private static final int TAMANHO_LOTE = 500; // Usuários preenchidos por transação no preenchimento das colunas de busca.
+    private static final String SELECT_PENDENTES =
+            "select id, email, nome_completo from usuario where email_normalizado is null and id > ? order by id limit ?";
+    private static final String UPDATE_CAMPOS_DE_BUSCA =
+            "update usuario set email_normalizado = ?, nome_normalizado = ? where id = ? and email_normalizado is null";
+
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor // Executor gerenciado pelo Spring Boot, encerrado junto com o contexto.
+    ) {
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
     }
 
     public List<Usuario> allUsers() {
@@ -23,4 +56,73 @@ public class UserService {
 
         return usuarios;
     }
+
+    public Slice<UserSummaryResponse> search(String query, int page, int size) {
+        String prefixo = Usuario.normalizarBusca(query);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        int inicio = (int) Math.min(pageRequest.getOffset(), MAX_SEARCH_RESULTS);
+        int fim = Math.min(inicio + pageRequest.getPageSize(), MAX_SEARCH_RESULTS);
+
+        if (prefixo == null || prefixo.isEmpty() || inicio >= fim) {
+            return new SliceImpl<>(List.of(), pageRequest, false);
+        }
+
+        // Duas varreduras de intervalo, uma em cada índice, em vez de um OR que força index merge, filesort e COUNT.
+        // Primeiro os usuários cujo e-mail começa com o prefixo, depois os demais cujo nome começa com ele.
+        // As consultas projetam apenas id, nome e e-mail: o hash da senha nunca sai do banco.
+        PageRequest primeiros = PageRequest.of(0, fim + 1); // Uma linha extra indica se há próxima página.
+        List<UserSummaryResponse> resultados = new ArrayList<>(userRepository
+                .findByEmailNormalizadoStartingWith(prefixo, primeiros)
+                .getContent());
+        if (resultados.size() <= fim) {
+            resultados.addAll(userRepository
+                    .findByNomeNormalizadoStartingWithExcludingEmailPrefix(prefixo, PageRequest.of(0, fim + 1 - resultados.size()))
+                    .getContent());
+        }
+
+        boolean temProxima = resultados.size() > fim && fim < MAX_SEARCH_RESULTS;
+        List<UserSummaryResponse> pagina = inicio < resultados.size() ? resultados.subList(inicio, Math.min(fim, resultados.size())) : List.of();
+
+        return new SliceImpl<>(new ArrayList<>(pagina), pageRequest, temProxima);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void startSearchColumnsBackfill() {
+        // Usuários criados antes das colunas normalizadas existirem; roda em segundo plano para não atrasar a prontidão.
+        // Até terminar, esses usuários apenas não aparecem em `/users/search`.
+        taskExecutor.execute(this::backfillSearchColumns);
+    }
+
+    public long backfillSearchColumns() {
+        // Todos os nós executam o preenchimento na inicialização: o UPDATE só grava as colunas de busca e apenas
+        // enquanto ainda estão nulas, então execuções concorrentes não sobrescrevem senha, papéis ou versão da sessão
+        // gravados por `AuthenticationService` (a entidade não tem `@Version`).
+        long atualizados = 0;
+        int ultimoId = 0;
+
+        while (!Thread.currentThread().isInterrupted()) { // O executor é interrompido no encerramento do contexto.
+            List<Pendente> lote = jdbcTemplate.query(SELECT_PENDENTES,
+                    (rs, rowNum) -> new Pendente(rs.getInt(1), rs.getString(2), rs.getString(3)), ultimoId, TAMANHO_LOTE);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> valores = lote.stream()
+                    .map(pendente -> new Object[] { Usuario.normalizarBusca(pendente.email()), Usuario.normalizarBusca(pendente.nome()), pendente.id() })
+                    .toList();
+            int[] linhas = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_CAMPOS_DE_BUSCA, valores)); // Um commit por lote.
+            for (int linha : linhas) {
+                atualizados += Math.max(linha, 0); // Zero quando outro nó preencheu a linha primeiro.
+            }
+            ultimoId = lote.get(lote.size() - 1).id();
+        }
+
+        if (atualizados > 0) {
+            log.info("Search columns backfilled for {} users", atualizados);
+        }
+        return atualizados;
+    }
+
+    private record Pendente(int id, String email, String nome) { // Usuário sem as colunas de busca preenchidas.
+    }
 }
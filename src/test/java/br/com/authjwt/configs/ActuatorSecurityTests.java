@@ -0,0 +1,63 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.JwtService;
+
+import java.util.EnumSet;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void healthProbesArePublic() throws Exception {
+		mockMvc.perform(get("/actuator/health/liveness"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void metricsRequireThePermission() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(Papel.USUARIO)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(Papel.ADMINISTRADOR)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void anonymousCannotReadMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/metrics"))
+				.andExpect(status().isForbidden());
+	}
+
+	private String token(Papel papel) {
+		String email = "metrics-" + papel.name().toLowerCase() + "@x.com";
+		Usuario usuario = userRepository.findByEmail(email).orElseGet(() -> userRepository.save(new Usuario()
+				.setEmail(email)
+				.setnomeCompleto(email)
+				.setPassword("{noop}unused")
+				.setPapeis(EnumSet.of(papel))));
+		return jwtService.generateToken(usuario);
+	}
+}
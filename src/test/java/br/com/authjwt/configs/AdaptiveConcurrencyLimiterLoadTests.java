@@ -0,0 +1,103 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Depends on wall-clock timing and the number of cores; run with `mvn test -Pload-tests`.
+@Tag("load")
+class AdaptiveConcurrencyLimiterLoadTests {
+
+	private static final int CAPACITY = 4;
+	private static final int CLIENTS = 64;
+	private static final long SERVICE_TIME_MS = 2;
+	private static final long DURATION_MS = 2_000;
+
+	@Test
+	void shedsLoadAndKeepsP99StableUnderOverload() throws InterruptedException {
+		Result unlimited = run(new AdaptiveConcurrencyLimiter("unlimited", CLIENTS, CLIENTS, CLIENTS), 0);
+		Result adaptive = run(new AdaptiveConcurrencyLimiter("adaptive", 8, 1, CLIENTS), 0);
+
+		assertTrue(adaptive.rejections > 0, "overload should be shed");
+		assertTrue(adaptive.limit < CLIENTS / 2, "limit should settle near the backend capacity");
+		assertTrue(adaptive.p99Millis() * 2 < unlimited.p99Millis(),
+				() -> "p99 should stay close to the service time: adaptive=" + adaptive.p99Millis()
+						+ "ms unlimited=" + unlimited.p99Millis() + "ms");
+	}
+
+	// Half of the requests skip the backend (e.g. cached users); a minimum-RTT baseline would take them as the no-load latency.
+	@Test
+	void mixedFastAndSlowRequestsDoNotCollapseTheLimit() throws InterruptedException {
+		Result unlimited = run(new AdaptiveConcurrencyLimiter("unlimited", CLIENTS, CLIENTS, CLIENTS), 0.5);
+		Result adaptive = run(new AdaptiveConcurrencyLimiter("adaptive", 8, 1, CLIENTS), 0.5);
+
+		assertTrue(adaptive.rejections > 0, "overload should be shed");
+		assertTrue(adaptive.limit >= CAPACITY, () -> "limit should stay above the backend capacity, was " + adaptive.limit);
+		assertTrue(adaptive.p99Millis() * 1.5 < unlimited.p99Millis(),
+				() -> "p99 should stay close to the service time: adaptive=" + adaptive.p99Millis()
+						+ "ms unlimited=" + unlimited.p99Millis() + "ms");
+	}
+
+	private Result run(AdaptiveConcurrencyLimiter limiter, double fastRatio) throws InterruptedException {
+		Semaphore backend = new Semaphore(CAPACITY, true);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MS);
+		long measureFrom = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MS / 2);
+		CountDownLatch done = new CountDownLatch(CLIENTS);
+
+		for (int i = 0; i < CLIENTS; i++) {
+			Thread client = new Thread(() -> {
+				try {
+					while (System.nanoTime() < deadline) {
+						if (!limiter.tryAcquire()) {
+							Thread.sleep(1);
+							continue;
+						}
+						long start = System.nanoTime();
+						if (ThreadLocalRandom.current().nextDouble() < fastRatio) {
+							Thread.onSpinWait(); // Served without touching the backend.
+						} else {
+							backend.acquire();
+							try {
+								Thread.sleep(SERVICE_TIME_MS);
+							} finally {
+								backend.release();
+							}
+						}
+						long rtt = System.nanoTime() - start;
+						limiter.release(rtt);
+						if (start > measureFrom) {
+							latencies.add(rtt);
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			});
+			client.setDaemon(true);
+			client.start();
+		}
+
+		done.await();
+		return new Result(latencies, limiter.getRejeicoes(), limiter.getLimite());
+	}
+
+	private record Result(List<Long> latencies, long rejections, int limit) {
+		double p99Millis() {
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			return sorted.get((int) (sorted.size() * 0.99)) / 1_000_000.0;
+		}
+	}
+}
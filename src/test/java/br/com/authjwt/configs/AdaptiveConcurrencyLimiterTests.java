@@ -0,0 +1,109 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long BASE_RTT = 1_000_000;
+
+	@Test
+	void neverAdmitsMoreThanTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 3, 3, 3);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(1, limiter.getRejeicoes());
+
+		limiter.releaseWithoutSample();
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void limitShrinksWhenLatencyRisesAboveTheReference() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 40, 1, 40);
+		saturate(limiter);
+		sample(limiter, BASE_RTT, 1_000);
+
+		sample(limiter, BASE_RTT * 10, 300);
+
+		assertTrue(limiter.getLimite() < 20, () -> "limit should shrink, was " + limiter.getLimite());
+		assertTrue(limiter.getLimite() >= 1);
+	}
+
+	@Test
+	void limitGrowsWhileLatencyStaysNearTheReference() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100);
+		saturate(limiter);
+
+		sample(limiter, BASE_RTT, 500);
+
+		assertTrue(limiter.getLimite() > 20, () -> "limit should grow, was " + limiter.getLimite());
+	}
+
+	@Test
+	void limitStaysWithinBounds() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 5, 30);
+		saturate(limiter);
+
+		sample(limiter, BASE_RTT, 1_000);
+		assertEquals(30, limiter.getLimite());
+
+		sample(limiter, BASE_RTT * 100, 500);
+		assertEquals(5, limiter.getLimite());
+	}
+
+	@Test
+	void lightLoadSamplesDoNotChangeTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 1, 100);
+
+		for (int i = 0; i < 500; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(i == 0 ? BASE_RTT / 100 : BASE_RTT * 100);
+		}
+
+		assertEquals(20, limiter.getLimite());
+	}
+
+	@Test
+	void aSingleFastRequestDoesNotCollapseTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 64);
+		saturate(limiter);
+
+		sample(limiter, BASE_RTT / 500, 1); // e.g. a cached user, 200 µs
+		sample(limiter, BASE_RTT * 100, 200); // e.g. BCrypt logins, 100 ms
+
+		assertTrue(limiter.getLimite() >= 8, () -> "limit should not collapse, was " + limiter.getLimite());
+	}
+
+	@Test
+	void mixedFastAndSlowRequestsDoNotShrinkTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 10, 400);
+		saturate(limiter);
+
+		for (int i = 0; i < 1_000; i++) {
+			sample(limiter, i % 3 == 0 ? BASE_RTT / 5 : BASE_RTT * 20, 1);
+		}
+
+		assertTrue(limiter.getLimite() >= 50, () -> "limit should not shrink, was " + limiter.getLimite());
+	}
+
+	// Keeps the limiter at its limit, so every sample is taken under load.
+	private static void sample(AdaptiveConcurrencyLimiter limiter, long rttNanos, int samples) {
+		for (int i = 0; i < samples; i++) {
+			limiter.release(rttNanos);
+			saturate(limiter);
+		}
+	}
+
+	private static void saturate(AdaptiveConcurrencyLimiter limiter) {
+		while (limiter.getEmAndamento() < limiter.getLimite()) {
+			assertTrue(limiter.tryAcquire());
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.AuthenticationService;
+
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminBootstrapRunnerTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AuthenticationService authenticationService = mock(AuthenticationService.class);
+
+	@Test
+	void promotesRegisteredUsers() {
+		when(userRepository.findByEmail("root@x.com")).thenReturn(Optional.of(user("root@x.com", Papel.USUARIO)));
+
+		runner(" root@x.com ").run(new DefaultApplicationArguments());
+
+		verify(authenticationService).changeRoles("root@x.com", EnumSet.of(Papel.USUARIO, Papel.ADMINISTRADOR));
+	}
+
+	@Test
+	void existingAdministratorsKeepTheirSessions() {
+		when(userRepository.findByEmail("root@x.com")).thenReturn(Optional.of(user("root@x.com", Papel.ADMINISTRADOR)));
+
+		runner("root@x.com").run(new DefaultApplicationArguments());
+
+		verify(authenticationService, never()).changeRoles(anyString(), any());
+	}
+
+	@Test
+	void unknownAndBlankEmailsAreIgnored() {
+		when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+
+		runner("missing@x.com", "").run(new DefaultApplicationArguments());
+
+		verify(userRepository).findByEmail("missing@x.com");
+		verify(authenticationService, never()).changeRoles(anyString(), any());
+	}
+
+	private AdminBootstrapRunner runner(String... adminEmails) {
+		return new AdminBootstrapRunner(userRepository, authenticationService, adminEmails);
+	}
+
+	private static Usuario user(String email, Papel papel) {
+		return new Usuario().setEmail(email).setPapeis(EnumSet.of(papel));
+	}
+}
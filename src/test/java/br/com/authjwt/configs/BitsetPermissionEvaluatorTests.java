@@ -0,0 +1,55 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Permissao;
+import br.com.authjwt.entities.Usuario;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitsetPermissionEvaluatorTests {
+
+	private final BitsetPermissionEvaluator evaluator = new BitsetPermissionEvaluator();
+
+	@Test
+	void administratorCanListUsers() {
+		Authentication admin = authentication(Papel.ADMINISTRADOR);
+
+		assertTrue(evaluator.hasPermission(admin, null, "USUARIOS_LISTAR"));
+		assertTrue(evaluator.hasPermission(admin, null, Permissao.USUARIOS_LER));
+	}
+
+	@Test
+	void regularUserCannotListUsers() {
+		Authentication user = authentication(Papel.USUARIO);
+
+		assertTrue(evaluator.hasPermission(user, null, "USUARIOS_LER"));
+		assertFalse(evaluator.hasPermission(user, null, "USUARIOS_LISTAR"));
+		assertFalse(evaluator.hasPermission(user, 1, "Usuario", "USUARIOS_LISTAR"));
+	}
+
+	@Test
+	void unknownPermissionIsDeniedInsteadOfFailing() {
+		assertFalse(evaluator.hasPermission(authentication(Papel.ADMINISTRADOR), null, "USUARIOS_LISTRA"));
+		assertFalse(evaluator.hasPermission(authentication(Papel.ADMINISTRADOR), null, null));
+	}
+
+	@Test
+	void authenticationsWithoutBitsetAreDenied() {
+		Authentication other = new UsernamePasswordAuthenticationToken("a@x.com", null, Permissao.autoridades(-1L));
+
+		assertFalse(evaluator.hasPermission(other, null, "USUARIOS_LER"));
+		assertFalse(evaluator.hasPermission(null, null, "USUARIOS_LER"));
+	}
+
+	private static Authentication authentication(Papel papel) {
+		Usuario usuario = new Usuario().setEmail("a@x.com").setPapeis(EnumSet.of(papel));
+		return new JwtAuthentication(usuario, Permissao.autoridades(papel.getPermissoes()), null);
+	}
+}
@@ -0,0 +1,154 @@
+package br.com.authjwt.configs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.authjwt.services.CredentialVerificationCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingDaoAuthenticationProviderTests {
+
+	private static final String EMAIL = "ana@example.com";
+
+	private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+	private final AtomicInteger bcryptCalls = new AtomicInteger();
+	private final Map<String, UserDetails> users = new HashMap<>();
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		users.put(EMAIL, user("secret", false));
+	}
+
+	@Test
+	void repeatedCorrectPasswordSkipsBcrypt() {
+		CachingDaoAuthenticationProvider provider = provider(true, 60);
+
+		provider.authenticate(login("secret"));
+		provider.authenticate(login("secret"));
+
+		assertEquals(1, bcryptCalls.get());
+		assertEquals(1.0, meterRegistry.get("auth.login.cache.requests").tag("result", "hit").counter().count());
+	}
+
+	@Test
+	void wrongPasswordNeverHitsTheCache() {
+		CachingDaoAuthenticationProvider provider = provider(true, 60);
+		provider.authenticate(login("secret"));
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("secret ")));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("")));
+
+		assertEquals(4, bcryptCalls.get());
+		assertEquals(0.0, meterRegistry.get("auth.login.cache.requests").tag("result", "hit").counter().count());
+	}
+
+	@Test
+	void failedVerificationIsNeverCached() {
+		CachingDaoAuthenticationProvider provider = provider(true, 60);
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+
+		assertEquals(2, bcryptCalls.get());
+	}
+
+	@Test
+	void passwordChangeInvalidatesEntry() {
+		CachingDaoAuthenticationProvider provider = provider(true, 60);
+		provider.authenticate(login("secret"));
+
+		users.put(EMAIL, user("new-secret", false));
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("secret")));
+		provider.authenticate(login("new-secret"));
+	}
+
+	@Test
+	void lockedAccountIsRejectedBeforeTheCache() {
+		CachingDaoAuthenticationProvider provider = provider(true, 60);
+		provider.authenticate(login("secret"));
+
+		users.put(EMAIL, User.withUserDetails(users.get(EMAIL)).accountLocked(true).build());
+
+		assertThrows(LockedException.class, () -> provider.authenticate(login("secret")));
+	}
+
+	@Test
+	void explicitInvalidationForcesBcrypt() {
+		CredentialVerificationCache cache = new CredentialVerificationCache(meterRegistry, true, 60, 100);
+		CachingDaoAuthenticationProvider provider = provider(cache);
+		provider.authenticate(login("secret"));
+
+		cache.invalidar(EMAIL);
+		provider.authenticate(login("secret"));
+
+		assertEquals(2, bcryptCalls.get());
+	}
+
+	@Test
+	void expiredEntryForcesBcrypt() {
+		CachingDaoAuthenticationProvider provider = provider(true, 0);
+
+		provider.authenticate(login("secret"));
+		provider.authenticate(login("secret"));
+
+		assertEquals(2, bcryptCalls.get());
+	}
+
+	@Test
+	void disabledCacheAlwaysUsesBcrypt() {
+		CachingDaoAuthenticationProvider provider = provider(false, 60);
+
+		provider.authenticate(login("secret"));
+		provider.authenticate(login("secret"));
+
+		assertEquals(2, bcryptCalls.get());
+	}
+
+	private CachingDaoAuthenticationProvider provider(boolean enabled, long ttlSeconds) {
+		return provider(new CredentialVerificationCache(meterRegistry, enabled, ttlSeconds, 100));
+	}
+
+	private CachingDaoAuthenticationProvider provider(CredentialVerificationCache cache) {
+		CachingDaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(cache);
+		provider.setUserDetailsService(users::get);
+		provider.setPasswordEncoder(new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return bcrypt.encode(rawPassword);
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				bcryptCalls.incrementAndGet();
+				return bcrypt.matches(rawPassword, encodedPassword);
+			}
+		});
+		return provider;
+	}
+
+	private UserDetails user(String password, boolean locked) {
+		return User.withUsername(EMAIL).password(bcrypt.encode(password)).accountLocked(locked).authorities("usuarios:ler").build();
+	}
+
+	private static UsernamePasswordAuthenticationToken login(String password) {
+		return new UsernamePasswordAuthenticationToken(EMAIL, password);
+	}
+}
@@ -0,0 +1,85 @@
+package br.com.authjwt.configs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTests {
+
+	private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), true, 1, 1, 1, 1, 1, 1);
+
+	@Test
+	void shedsRequestsAboveTheLimit() throws Exception {
+		MockHttpServletResponse inner = new MockHttpServletResponse();
+
+		filter.doFilter(get("/users/me"), new MockHttpServletResponse(),
+				(req, res) -> filter.doFilter(get("/users"), inner, (r, s) -> { }));
+
+		assertEquals(503, inner.getStatus());
+		assertEquals("1", inner.getHeader("Retry-After"));
+	}
+
+	@Test
+	void neverShedsActuatorEndpoints() throws Exception {
+		AtomicInteger served = new AtomicInteger();
+		FilterChain probe = (req, res) -> served.incrementAndGet();
+		MockHttpServletResponse liveness = new MockHttpServletResponse();
+		MockHttpServletResponse metrics = new MockHttpServletResponse();
+
+		filter.doFilter(get("/users/me"), new MockHttpServletResponse(), (req, res) -> {
+			filter.doFilter(get("/actuator/health/liveness"), liveness, probe);
+			filter.doFilter(get("/actuator/metrics"), metrics, probe);
+		});
+
+		assertEquals(2, served.get());
+		assertEquals(200, liveness.getStatus());
+		assertEquals(200, metrics.getStatus());
+	}
+
+	@Test
+	void onlySuccessfulResponsesAdjustTheLimit() throws Exception {
+		SimpleMeterRegistry successes = new SimpleMeterRegistry();
+		SimpleMeterRegistry failures = new SimpleMeterRegistry();
+
+		saturated(new ConcurrencyLimitFilter(successes, true, 1, 1, 1, 4, 1, 100), 200);
+		saturated(new ConcurrencyLimitFilter(failures, true, 1, 1, 1, 4, 1, 100), 401);
+
+		assertTrue(limit(successes) > 4);
+		assertEquals(4, limit(failures));
+	}
+
+	// Holds three slots of the api group while 100 requests run in the fourth, so every sample is taken at the limit.
+	private static void saturated(ConcurrencyLimitFilter filter, int status) throws Exception {
+		FilterChain requests = (req, res) -> {
+			for (int i = 0; i < 100; i++) {
+				filter.doFilter(get("/users/me"), new MockHttpServletResponse(), (r, s) -> {
+					LockSupport.parkNanos(1_000_000);
+					((HttpServletResponse) s).setStatus(status);
+				});
+			}
+		};
+		FilterChain held = requests;
+		for (int i = 0; i < 2; i++) {
+			FilterChain inner = held;
+			held = (req, res) -> filter.doFilter(get("/users/me"), new MockHttpServletResponse(), inner);
+		}
+		filter.doFilter(get("/users/me"), new MockHttpServletResponse(), held);
+	}
+
+	private static double limit(SimpleMeterRegistry registry) {
+		return registry.get("auth.concurrency.limit").tag("group", "api").gauge().value();
+	}
+
+	private static MockHttpServletRequest get(String uri) {
+		return new MockHttpServletRequest("GET", uri);
+	}
+}
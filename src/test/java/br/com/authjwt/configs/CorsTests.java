@@ -0,0 +1,72 @@
+package br.com.authjwt.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.JwtService;
+
+import java.util.EnumSet;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CorsTests {
+
+	private static final String ORIGIN = "http://localhost:8005";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void exposesTheRenewedTokenHeaderToTheAllowedOrigin() throws Exception {
+		Usuario usuario = userRepository.findByEmail("cors@x.com").orElseGet(() -> userRepository.save(new Usuario()
+				.setEmail("cors@x.com")
+				.setnomeCompleto("Cors")
+				.setPassword("{noop}unused")
+				.setPapeis(EnumSet.of(Papel.USUARIO))));
+
+		mockMvc.perform(get("/users/me")
+						.header("Origin", ORIGIN)
+						.header("Authorization", "Bearer " + jwtService.generateToken(usuario)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Access-Control-Allow-Origin", ORIGIN))
+				.andExpect(header().string("Access-Control-Expose-Headers", containsString(JwtAuthenticationFilter.RENEWED_TOKEN_HEADER)));
+	}
+
+	@Test
+	void answersPreflightRequests() throws Exception {
+		mockMvc.perform(options("/users/me")
+						.header("Origin", ORIGIN)
+						.header("Access-Control-Request-Method", "GET")
+						.header("Access-Control-Request-Headers", "Authorization"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Access-Control-Allow-Origin", ORIGIN));
+	}
+
+	@Test
+	void rejectsOtherOrigins() throws Exception {
+		mockMvc.perform(options("/users/me")
+						.header("Origin", "http://evil.example")
+						.header("Access-Control-Request-Method", "GET"))
+				.andExpect(status().isForbidden());
+	}
+}
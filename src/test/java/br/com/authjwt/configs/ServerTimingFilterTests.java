@@ -0,0 +1,98 @@
+package br.com.authjwt.configs;
+
+import jakarta.servlet.FilterChain;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import br.com.authjwt.observability.AuthStage;
+import br.com.authjwt.observability.StageTimings;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(OutputCaptureExtension.class)
+class ServerTimingFilterTests {
+
+	@Test
+	void logsRequestsAboveTheThreshold(CapturedOutput output) throws Exception {
+		filter(false, 0, 1.0).doFilter(request(), new MockHttpServletResponse(),
+				(req, res) -> StageTimings.medir(AuthStage.USER_LOOKUP, () -> null));
+
+		assertTrue(output.getOut().contains("Slow request GET /users/me status=200 user;dur="), output.getOut());
+		assertNull(StageTimings.atual());
+	}
+
+	@Test
+	void doesNotLogRequestsBelowTheThreshold(CapturedOutput output) throws Exception {
+		filter(false, 60_000, 1.0).doFilter(request(), new MockHttpServletResponse(), (req, res) -> { });
+
+		assertFalse(output.getOut().contains("Slow request"));
+	}
+
+	@Test
+	void doesNotLogWhenNotSampled(CapturedOutput output) throws Exception {
+		filter(true, 0, 0).doFilter(request(), new MockHttpServletResponse(), (req, res) -> { });
+
+		assertFalse(output.getOut().contains("Slow request"));
+	}
+
+	@Test
+	void measuresNothingWhenBothFeaturesAreDisabled() throws Exception {
+		assertFalse(measured(filter(false, 0, 0)));
+		assertTrue(measured(filter(true, 500, 0)));
+		assertTrue(measured(filter(false, 500, 0.5)));
+	}
+
+	@Test
+	void emitsJfrEventsWhenBothFeaturesAreDisabled(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("stages.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("br.com.authjwt.AuthStage").withoutThreshold();
+			recording.start();
+
+			filter(false, 0, 0).doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+				StageTimings.iniciar(AuthStage.CONTROLLER); // WebConfiguration interceptor
+				StageTimings.encerrar(AuthStage.CONTROLLER); // ServerTimingAdvice
+				StageTimings.iniciar(AuthStage.SERIALIZATION);
+			});
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<String> stages = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("br.com.authjwt.AuthStage"))
+				.map(event -> event.getString("stage"))
+				.toList();
+		assertEquals(List.of("controller", "serialization"), stages);
+		assertNull(StageTimings.atual());
+	}
+
+	private static boolean measured(ServerTimingFilter filter) throws Exception {
+		AtomicBoolean measured = new AtomicBoolean();
+		FilterChain chain = (req, res) -> measured.set(StageTimings.atual() != null);
+		filter.doFilter(request(), new MockHttpServletResponse(), chain);
+		return measured.get();
+	}
+
+	private static ServerTimingFilter filter(boolean serverTimingEnabled, long thresholdMillis, double sampleRate) {
+		return new ServerTimingFilter(serverTimingEnabled, thresholdMillis, sampleRate);
+	}
+
+	private static MockHttpServletRequest request() {
+		return new MockHttpServletRequest("GET", "/users/me");
+	}
+}
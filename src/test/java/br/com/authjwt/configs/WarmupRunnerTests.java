@@ -0,0 +1,93 @@
+package br.com.authjwt.configs;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.JwtService;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmupRunnerTests {
+
+	private final JwtService jwtService = mock(JwtService.class);
+	private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+
+	@Test
+	void distributesTheRemainderAcrossThreads() {
+		when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+		runner(10, 10, 4).run(new DefaultApplicationArguments());
+
+		verify(passwordEncoder, times(10)).matches(anyString(), anyString());
+		verify(userRepository, times(4)).findByEmail(anyString()); // 3 + 3 + 2 + 2 token cycles, one lookup every ten per thread.
+	}
+
+	@Test
+	void failuresDoNotAbortStartup() {
+		when(passwordEncoder.encode(anyString())).thenReturn("hash");
+		when(passwordEncoder.matches(anyString(), anyString())).thenThrow(new IllegalStateException("boom"));
+		when(userRepository.findByEmail(anyString())).thenThrow(new IllegalStateException("database down"));
+
+		assertDoesNotThrow(() -> runner(100, 10, 4).run(new DefaultApplicationArguments()));
+	}
+
+	@Test
+	void skipsWhenHashingFails() {
+		when(passwordEncoder.encode(anyString())).thenThrow(new IllegalStateException("boom"));
+
+		assertDoesNotThrow(() -> runner(100, 10, 4).run(new DefaultApplicationArguments()));
+		verify(jwtService, never()).generateToken(any());
+	}
+
+	@Test
+	void httpPhaseOnlyCallsTheLivenessProbe() throws Exception {
+		when(passwordEncoder.encode(anyString())).thenReturn("hash");
+		Set<String> paths = ConcurrentHashMap.newKeySet();
+		AtomicInteger requests = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			paths.add(exchange.getRequestURI().getPath());
+			requests.incrementAndGet();
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			MockEnvironment environment = new MockEnvironment().withProperty("local.server.port", String.valueOf(server.getAddress().getPort()));
+
+			runner(environment, 10, 0, 2).run(new DefaultApplicationArguments());
+		} finally {
+			server.stop(0);
+		}
+
+		assertEquals(Set.of("/actuator/health/liveness"), paths);
+		assertEquals(20, requests.get());
+	}
+
+	private WarmupRunner runner(int iterations, int passwordIterations, int threads) {
+		return runner(new MockEnvironment(), iterations, passwordIterations, threads);
+	}
+
+	private WarmupRunner runner(MockEnvironment environment, int iterations, int passwordIterations, int threads) {
+		return new WarmupRunner(jwtService, passwordEncoder, userRepository, environment,
+				true, iterations, passwordIterations, 20, threads, 30_000);
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.authjwt.controllers;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.services.JwtService;
+
+import java.util.Date;
+import java.util.EnumSet;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Value("${security.jwt.secret-key}")
+	private String secretKey;
+
+	private String adminToken;
+	private String userToken;
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+		adminToken = jwtService.generateToken(userRepository.save(user("admin@x.com", Papel.ADMINISTRADOR)));
+		userToken = jwtService.generateToken(userRepository.save(user("user@x.com", Papel.USUARIO)));
+	}
+
+	@Test
+	void administratorCanListUsers() throws Exception {
+		mockMvc.perform(get("/users").header("Authorization", "Bearer " + adminToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void regularUserCannotListUsers() throws Exception {
+		mockMvc.perform(get("/users").header("Authorization", "Bearer " + userToken))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void regularUserCanReadOwnProfile() throws Exception {
+		mockMvc.perform(get("/users/me").header("Authorization", "Bearer " + userToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void tokenIssuedBeforePermissionClaimCanReadOwnProfile() throws Exception {
+		Usuario usuario = userRepository.findByEmail("user@x.com").orElseThrow();
+		String legacyToken = Jwts.builder()
+				.setSubject(usuario.getUsername())
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)), SignatureAlgorithm.HS256)
+				.compact(); // Sem as reivindicações `prm`, `aat` e `ver`.
+
+		mockMvc.perform(get("/users/me").header("Authorization", "Bearer " + legacyToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void searchReturnsSummariesWithoutPasswordHashes() throws Exception {
+		mockMvc.perform(get("/users/search").param("q", "user").header("Authorization", "Bearer " + adminToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].email").value("user@x.com"))
+				.andExpect(jsonPath("$.content[0].nomeCompleto").value("user@x.com"))
+				.andExpect(jsonPath("$.content[0].password").doesNotExist());
+	}
+
+	@Test
+	void searchRejectsMissingOrBlankQuery() throws Exception {
+		mockMvc.perform(get("/users/search").header("Authorization", "Bearer " + adminToken))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/users/search").param("q", " ").header("Authorization", "Bearer " + adminToken))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void anonymousRequestIsRejected() throws Exception {
+		mockMvc.perform(get("/users"))
+				.andExpect(status().isForbidden());
+	}
+
+	private static Usuario user(String email, Papel papel) {
+		return new Usuario()
+				.setEmail(email)
+				.setnomeCompleto(email)
+				.setPassword("{noop}unused")
+				.setPapeis(EnumSet.of(papel));
+	}
+}
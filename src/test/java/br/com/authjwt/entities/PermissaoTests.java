@@ -0,0 +1,86 @@
+package br.com.authjwt.entities;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissaoTests {
+
+	@Test
+	void bitPositionsAreStable() {
+		// Tokens already issued depend on these values; changing them is a breaking change.
+		assertEquals(1L, Permissao.USUARIOS_LER.getBit());
+		assertEquals(2L, Permissao.USUARIOS_LISTAR.getBit());
+		assertEquals(4L, Permissao.METRICAS_LER.getBit());
+		assertEquals(1, Papel.USUARIO.getBit());
+		assertEquals(2, Papel.ADMINISTRADOR.getBit());
+	}
+
+	@Test
+	void rolesGrantTheirPermissions() {
+		assertEquals(Permissao.USUARIOS_LER.getBit(), Papel.USUARIO.getPermissoes());
+		assertTrue(Permissao.USUARIOS_LISTAR.presenteEm(Papel.ADMINISTRADOR.getPermissoes()));
+		assertEquals(Papel.ADMINISTRADOR.getPermissoes(),
+				Papel.permissoesDe(Papel.mascaraDe(EnumSet.of(Papel.USUARIO, Papel.ADMINISTRADOR))));
+		assertEquals(0L, Papel.permissoesDe(0));
+	}
+
+	@Test
+	void roleMaskRoundTrips() {
+		Set<Papel> papeis = EnumSet.of(Papel.ADMINISTRADOR);
+
+		assertEquals(papeis, Papel.deMascara(Papel.mascaraDe(papeis)));
+		assertEquals(EnumSet.noneOf(Papel.class), Papel.deMascara(0));
+	}
+
+	@Test
+	void authoritiesAreInternedAndIgnoreUnknownBits() {
+		Permissao.Autoridades autoridades = Permissao.autoridades(Permissao.mascaraDe(Permissao.USUARIOS_LER));
+
+		assertSame(autoridades, Permissao.autoridades(Permissao.USUARIOS_LER.getBit()));
+		assertSame(autoridades, Permissao.autoridades(Permissao.USUARIOS_LER.getBit() | (1L << 62)));
+		assertEquals(Permissao.USUARIOS_LER.getBit(), autoridades.getMascara());
+	}
+
+	@Test
+	void iteratesOnlyPresentPermissionsInBitOrder() {
+		Permissao.Autoridades autoridades = Permissao.autoridades(Papel.ADMINISTRADOR.getPermissoes());
+
+		List<GrantedAuthority> vistas = new ArrayList<>(autoridades);
+
+		assertEquals(3, autoridades.size());
+		assertEquals(List.of(Permissao.USUARIOS_LER.getAuthority(), Permissao.USUARIOS_LISTAR.getAuthority(),
+				Permissao.METRICAS_LER.getAuthority()), vistas);
+		assertTrue(Permissao.autoridades(0L).isEmpty());
+		assertFalse(Permissao.autoridades(0L).iterator().hasNext());
+	}
+
+	@Test
+	void containsChecksPermissionsAndAuthorityNames() {
+		Permissao.Autoridades autoridades = Permissao.autoridades(Papel.USUARIO.getPermissoes());
+
+		assertTrue(autoridades.possui(Permissao.USUARIOS_LER));
+		assertFalse(autoridades.possui(Permissao.USUARIOS_LISTAR));
+		assertTrue(autoridades.contains(Permissao.USUARIOS_LER));
+		assertTrue(autoridades.contains(new SimpleGrantedAuthority("usuarios:ler")));
+		assertFalse(autoridades.contains(new SimpleGrantedAuthority("usuarios:listar")));
+		assertFalse(autoridades.contains("usuarios:ler"));
+	}
+
+	@Test
+	void looksUpPermissionsByName() {
+		assertSame(Permissao.USUARIOS_LISTAR, Permissao.porNome("USUARIOS_LISTAR"));
+		assertNull(Permissao.porNome("USUARIOS_LISTRA"));
+	}
+}
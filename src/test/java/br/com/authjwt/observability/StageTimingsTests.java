@@ -0,0 +1,103 @@
+package br.com.authjwt.observability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageTimingsTests {
+
+	private static final String DURATION = "\\d+\\.\\d{3}";
+
+	@AfterEach
+	void tearDown() {
+		StageTimings.fechar();
+	}
+
+	@Test
+	void measuresOnlyWhileOpen() {
+		assertNull(StageTimings.atual());
+
+		StageTimings timings = StageTimings.abrir();
+		assertSame(timings, StageTimings.atual());
+
+		StageTimings.fechar();
+		assertNull(StageTimings.atual());
+	}
+
+	@Test
+	void accumulatesRepeatedStages() {
+		StageTimings timings = StageTimings.abrir();
+
+		StageTimings.medir(AuthStage.USER_LOOKUP, () -> sleep(5));
+		String primeira = duracao(timings.toServerTiming(), "user");
+		StageTimings.medir(AuthStage.USER_LOOKUP, () -> sleep(5));
+		String segunda = duracao(timings.toServerTiming(), "user");
+
+		assertTrue(Double.parseDouble(primeira) >= 5.0, primeira);
+		assertTrue(Double.parseDouble(segunda) >= 10.0, segunda);
+	}
+
+	@Test
+	void returnsTheActionResultWithoutTimings() {
+		assertEquals("ok", StageTimings.medir(AuthStage.JWT, () -> "ok"));
+		assertNull(StageTimings.atual());
+	}
+
+	@Test
+	void opensAndClosesStagesAcrossCalls() {
+		StageTimings timings = StageTimings.abrir();
+
+		StageTimings.iniciar(AuthStage.CONTROLLER);
+		sleep(5);
+		StageTimings.encerrar(AuthStage.CONTROLLER);
+		StageTimings.encerrar(AuthStage.CONTROLLER);
+		StageTimings.encerrar(AuthStage.SERIALIZATION);
+
+		String header = timings.toServerTiming();
+		assertTrue(Double.parseDouble(duracao(header, AuthStage.CONTROLLER.getNome())) >= 5.0, header);
+		assertFalse(header.contains(AuthStage.SERIALIZATION.getNome() + ";"), header);
+	}
+
+	@Test
+	void ignoresStagesWhenMeasurementIsDisabled() {
+		StageTimings.iniciar(AuthStage.CONTROLLER);
+		StageTimings.encerrar(AuthStage.CONTROLLER);
+
+		assertNull(StageTimings.atual());
+	}
+
+	@Test
+	void formatsServerTimingHeader() {
+		StageTimings timings = StageTimings.abrir();
+		assertTrue(timings.toServerTiming().matches("total;dur=" + DURATION), timings.toServerTiming());
+
+		StageTimings.medir(AuthStage.JWT, () -> sleep(1));
+		StageTimings.medir(AuthStage.PASSWORD, () -> sleep(1));
+
+		String header = timings.toServerTiming();
+		assertTrue(header.matches("jwt;dur=" + DURATION + ", bcrypt;dur=" + DURATION + ", total;dur=" + DURATION), header);
+	}
+
+	private static String duracao(String header, String etapa) {
+		for (String metrica : header.split(", ")) {
+			if (metrica.startsWith(etapa + ";dur=")) {
+				return metrica.substring(etapa.length() + ";dur=".length());
+			}
+		}
+		throw new AssertionError(etapa + " not found in " + header);
+	}
+
+	private static Object sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,112 @@
+package br.com.authjwt.repositories;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.authjwt.entities.Usuario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Inserts 1M users; run with `mvn test -Pload-tests`.
+@Tag("load")
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:searchbench;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserSearchBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(UserSearchBenchmarkTests.class);
+	private static final int ROWS = 1_000_000;
+	private static final String[] NOMES = { "Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Hélio" };
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void insertUsers() {
+		List<Object[]> lote = new ArrayList<>(10_000);
+		for (int i = 1; i <= ROWS; i++) {
+			String nome = NOMES[i % NOMES.length] + " " + i;
+			String email = "user" + i + "@example" + (i % 100) + ".com";
+			lote.add(new Object[] { i, nome, email, Usuario.normalizarBusca(nome), Usuario.normalizarBusca(email) });
+			if (lote.size() == 10_000) {
+				insert(lote);
+			}
+		}
+		insert(lote);
+	}
+
+	@Test
+	void prefixSearchUsesTheIndexes() {
+		String emailPlan = jdbcTemplate.queryForObject(
+				"explain select id from usuario where email_normalizado like 'user12345%' order by email_normalizado limit 21", String.class);
+		String nomePlan = jdbcTemplate.queryForObject(
+				"explain select id from usuario where nome_normalizado like 'carla 1234%' order by nome_normalizado, id limit 21", String.class);
+
+		assertTrue(emailPlan.contains("IDX_USUARIO_EMAIL_NORMALIZADO"), emailPlan);
+		assertTrue(nomePlan.contains("IDX_USUARIO_NOME_NORMALIZADO"), nomePlan);
+	}
+
+	@Test
+	void prefixSearchIsMuchFasterThanALikeScan() {
+		PageRequest pagina = PageRequest.of(0, 21);
+
+		double emailMillis = averageMillis(200, () -> userRepository
+				.findByEmailNormalizadoStartingWith("user12345", pagina).getContent());
+		double nomeMillis = averageMillis(200, () -> userRepository
+				.findByNomeNormalizadoStartingWithExcludingEmailPrefix("carla 1234", pagina).getContent());
+		double scanMillis = averageMillis(10, () -> jdbcTemplate.queryForList(
+				"select id from usuario where email_normalizado like '%user12345%' or nome_normalizado like '%carla 1234%'"));
+
+		log.info("Search over {} users: email prefix {} ms, name prefix {} ms, LIKE scan {} ms",
+				ROWS, format(emailMillis), format(nomeMillis), format(scanMillis));
+
+		assertEquals(11, userRepository.findByEmailNormalizadoStartingWith("user12345", pagina).getNumberOfElements());
+		assertTrue(emailMillis * 5 < scanMillis, () -> "email prefix " + emailMillis + " ms vs scan " + scanMillis + " ms");
+		assertTrue(nomeMillis * 5 < scanMillis, () -> "name prefix " + nomeMillis + " ms vs scan " + scanMillis + " ms");
+	}
+
+	private void insert(List<Object[]> lote) {
+		jdbcTemplate.batchUpdate("insert into usuario (id, nome_completo, email, password, papeis, nome_normalizado, email_normalizado)"
+				+ " values (?, ?, ?, 'x', 1, ?, ?)", lote);
+		lote.clear();
+	}
+
+	private static double averageMillis(int execucoes, Supplier<?> consulta) {
+		for (int i = 0; i < execucoes; i++) {
+			consulta.get(); // Aquecimento do JIT e do cache de consultas.
+		}
+		long inicio = System.nanoTime();
+		for (int i = 0; i < execucoes; i++) {
+			consulta.get();
+		}
+		return (System.nanoTime() - inicio) / 1_000_000.0 / execucoes;
+	}
+
+	private static String format(double millis) {
+		return String.format(Locale.ROOT, "%.2f", millis);
+	}
+}
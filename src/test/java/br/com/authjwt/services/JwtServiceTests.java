@@ -0,0 +1,107 @@
+package br.com.authjwt.services;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.authjwt.entities.Papel;
+import br.com.authjwt.entities.Permissao;
+import br.com.authjwt.entities.Usuario;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTests {
+
+	static final String SECRET = "2a12TfXGywdKyh8C5Qdqs6gZOlZhZCLMl1F5wtyh7bfnmoUyaVeeXEDq";
+
+	private JwtService jwtService;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = jwtService(60_000);
+	}
+
+	static JwtService jwtService(long expiration) {
+		JwtService jwtService = new JwtService();
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.setField(jwtService, "jwtExpiration", expiration);
+		return jwtService;
+	}
+
+	@Test
+	void permissionsRoundTripThroughTheToken() {
+		Usuario admin = new Usuario().setEmail("admin@x.com").setPapeis(EnumSet.of(Papel.ADMINISTRADOR));
+
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(admin));
+
+		assertEquals(Papel.ADMINISTRADOR.getPermissoes(), claims.get(JwtService.CLAIM_PERMISSOES, Number.class).longValue());
+		assertSame(Permissao.autoridades(Papel.ADMINISTRADOR.getPermissoes()), jwtService.extractAuthorities(claims));
+		assertTrue(jwtService.isTokenValid(claims, admin));
+	}
+
+	@Test
+	void tokensAreBoundToTheSessionVersion() {
+		Usuario usuario = new Usuario().setEmail("a@x.com").setVersaoSessao(3);
+
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+
+		assertEquals(3, jwtService.extractSessionVersion(claims));
+		assertTrue(jwtService.isTokenValid(claims, usuario));
+		assertFalse(jwtService.isTokenValid(claims, usuario.setVersaoSessao(4)));
+	}
+
+	@Test
+	void renewalKeepsTheSessionVersion() {
+		Usuario usuario = new Usuario().setEmail("a@x.com").setVersaoSessao(2);
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+
+		Claims renewed = jwtService.extractAllClaims(jwtService.renewToken(claims, usuario.setVersaoSessao(5), 60_000));
+
+		assertEquals(2, jwtService.extractSessionVersion(renewed));
+	}
+
+	@Test
+	void tokensWithoutPermissionClaimHaveNoAuthorities() {
+		Usuario usuario = new Usuario().setEmail("a@x.com");
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+		claims.remove(JwtService.CLAIM_PERMISSOES);
+
+		assertTrue(jwtService.extractAuthorities(claims).isEmpty());
+	}
+
+	@Test
+	void tokensWithoutPermissionClaimFallBackToTheLoadedUser() {
+		Usuario usuario = new Usuario().setEmail("a@x.com").setPapeis(EnumSet.of(Papel.ADMINISTRADOR));
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+		claims.remove(JwtService.CLAIM_PERMISSOES);
+
+		assertSame(usuario.getAuthorities(), jwtService.extractAuthorities(claims, usuario));
+	}
+
+	@Test
+	void permissionClaimWinsOverTheLoadedUser() {
+		Usuario usuario = new Usuario().setEmail("a@x.com").setPapeis(EnumSet.of(Papel.USUARIO));
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+
+		Permissao.Autoridades autoridades = jwtService.extractAuthorities(claims, usuario.setPapeis(EnumSet.of(Papel.ADMINISTRADOR)));
+
+		assertFalse(autoridades.possui(Permissao.USUARIOS_LISTAR));
+	}
+
+	@Test
+	void extraClaimsMapIsNotModified() {
+		Map<String, Object> extraClaims = Map.of("custom", "value");
+
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(extraClaims, new Usuario().setEmail("a@x.com")));
+
+		assertEquals("value", claims.get("custom"));
+		assertEquals(1, extraClaims.size());
+	}
+}
@@ -0,0 +1,102 @@
+package br.com.authjwt.services;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import br.com.authjwt.entities.Usuario;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRenewalServiceTests {
+
+	private static final long EXPIRATION = 60_000;
+	private static final long MAX_LIFETIME = 3_600_000;
+
+	private final JwtService jwtService = JwtServiceTests.jwtService(EXPIRATION);
+	private final JwtService nearExpiry = JwtServiceTests.jwtService(10_000); // Issues tokens inside the last 25% of EXPIRATION.
+	private final Usuario usuario = new Usuario().setEmail("a@x.com");
+
+	@Test
+	void doesNotRenewFarFromExpiry() {
+		Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+
+		assertNull(service(true, 60_000).renewIfNeeded(claims, usuario));
+	}
+
+	@Test
+	void doesNotRenewWhenDisabled() {
+		assertNull(service(false, 60_000).renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+	}
+
+	@Test
+	void renewsInsideTheWindowKeepingTheOriginalLogin() {
+		long autenticadoEm = nowSeconds() - 600;
+
+		String renewed = service(true, 60_000).renewIfNeeded(nearExpiry(usuario, autenticadoEm), usuario);
+
+		assertNotNull(renewed);
+		Claims claims = jwtService.extractAllClaims(renewed);
+		assertEquals(autenticadoEm * 1000, jwtService.extractAuthenticatedAt(claims));
+		assertTrue(claims.getExpiration().getTime() - System.currentTimeMillis() > 50_000);
+	}
+
+	@Test
+	void clipsExpiryToTheMaximumLifetime() {
+		long autenticadoEm = nowSeconds() - MAX_LIFETIME / 1000 + 20;
+
+		String renewed = service(true, 60_000).renewIfNeeded(nearExpiry(usuario, autenticadoEm), usuario);
+
+		long limite = autenticadoEm * 1000 + MAX_LIFETIME;
+		long expiracao = jwtService.extractAllClaims(renewed).getExpiration().getTime();
+		assertTrue(expiracao <= limite + 1000, () -> "expires at " + expiracao + ", session limit " + limite); // Dates in the token are in seconds.
+		assertTrue(expiracao - System.currentTimeMillis() < 25_000);
+	}
+
+	@Test
+	void doesNotRenewPastTheMaximumLifetime() {
+		long autenticadoEm = nowSeconds() - MAX_LIFETIME / 1000 - 1;
+
+		assertNull(service(true, 60_000).renewIfNeeded(nearExpiry(usuario, autenticadoEm), usuario));
+	}
+
+	@Test
+	void limitsRenewalsPerSubject() {
+		TokenRenewalService service = service(true, 60_000);
+		Usuario outro = new Usuario().setEmail("b@x.com");
+
+		assertNotNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+		assertNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+		assertNotNull(service.renewIfNeeded(nearExpiry(outro, nowSeconds()), outro));
+	}
+
+	@Test
+	void allowsRenewingAgainAfterTheInterval() throws InterruptedException {
+		TokenRenewalService service = service(true, 50);
+
+		assertNotNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+		assertNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+
+		Thread.sleep(60); // The previous renewal is now in the previous window, outside the interval.
+		assertNotNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+
+		Thread.sleep(120); // Two windows later the entry has been dropped entirely.
+		assertNotNull(service.renewIfNeeded(nearExpiry(usuario, nowSeconds()), usuario));
+	}
+
+	private TokenRenewalService service(boolean enabled, long minIntervalMillis) {
+		return new TokenRenewalService(jwtService, enabled, 0.25, MAX_LIFETIME, minIntervalMillis);
+	}
+
+	private Claims nearExpiry(Usuario usuario, long autenticadoEmSeconds) {
+		return nearExpiry.extractAllClaims(nearExpiry.generateToken(Map.of(JwtService.CLAIM_AUTENTICADO_EM, autenticadoEmSeconds), usuario));
+	}
+
+	private static long nowSeconds() {
+		return System.currentTimeMillis() / 1000;
+	}
+}
@@ -0,0 +1,170 @@
+package br.com.authjwt.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.authjwt.entities.UsuarioAlteracao;
+import br.com.authjwt.repositories.UserChangeLogRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserChangeLogPollerTests {
+
+	private final UserChangeLogRepository repository = mock(UserChangeLogRepository.class);
+	private final UserInvalidationRegistry registry = mock(UserInvalidationRegistry.class);
+
+	@Test
+	void startsAtTheFirstChangeInsideTheSessionHorizon() {
+		when(repository.findFirstByOcorridoEmGreaterThanEqualOrderBySequenciaAsc(anyLong())).thenReturn(Optional.of(change(42)));
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(41L)).thenReturn(List.of(change(42), change(43)));
+
+		poller(60_000).start();
+
+		verify(registry).apply(sequencia(42));
+		verify(registry).apply(sequencia(43));
+		verify(repository, never()).findTopByOrderBySequenciaDesc();
+	}
+
+	@Test
+	void startsAtTheEndWhenThereAreNoRecentChanges() {
+		when(repository.findFirstByOcorridoEmGreaterThanEqualOrderBySequenciaAsc(anyLong())).thenReturn(Optional.empty());
+		when(repository.findTopByOrderBySequenciaDesc()).thenReturn(Optional.of(change(100)));
+
+		poller(60_000).start();
+
+		verify(repository).findTop500BySequenciaGreaterThanOrderBySequenciaAsc(100L);
+		verify(registry, never()).apply(any());
+	}
+
+	@Test
+	void expiresRevocationsOutsideTheSessionHorizonOncePerMinute() {
+		long before = System.currentTimeMillis();
+		UserChangeLogPoller poller = started(60_000);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(anyLong())).thenReturn(List.of());
+
+		poller.poll();
+		poller.poll();
+
+		verify(registry, times(1)).expirarRevogacoes(longThat(limit ->
+				limit >= before - 60_000 - 300_000 && limit <= System.currentTimeMillis() - 60_000 - 300_000));
+	}
+
+	@Test
+	void doesNothingBeforeStart() {
+		poller(60_000).poll();
+
+		verify(repository, never()).findTop500BySequenciaGreaterThanOrderBySequenciaAsc(anyLong());
+	}
+
+	@Test
+	void readsFullBatchesUntilAShortOne() {
+		UserChangeLogPoller poller = started(0);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(0L)).thenReturn(range(1, 500));
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(500L)).thenReturn(range(501, 503));
+
+		poller.poll();
+
+		verify(registry, times(503)).apply(any());
+		verify(repository).findTop500BySequenciaGreaterThanOrderBySequenciaAsc(500L);
+		verify(repository, never()).findTop500BySequenciaGreaterThanOrderBySequenciaAsc(503L);
+	}
+
+	@Test
+	void rechecksGapsUntilTheyAreCommitted() {
+		UserChangeLogPoller poller = started(60_000);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(0L)).thenReturn(List.of(change(1), change(3)));
+		when(repository.findAllById(Set.of(2L))).thenReturn(List.of(), List.of(change(2)));
+
+		poller.poll(); // Sequence 2 is skipped: it may belong to an uncommitted transaction.
+		poller.poll(); // Still missing.
+		poller.poll(); // Committed now.
+		poller.poll();
+
+		verify(repository, times(2)).findAllById(any()); // Not checked again once applied.
+		verify(registry).apply(sequencia(2));
+	}
+
+	@Test
+	void forgetsGapsAfterTheTimeout() throws InterruptedException {
+		UserChangeLogPoller poller = started(1);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(0L)).thenReturn(List.of(change(1), change(3)));
+		when(repository.findAllById(any())).thenReturn(List.of());
+
+		poller.poll();
+		Thread.sleep(5);
+		poller.poll(); // Rolled back: the gap expires.
+		poller.poll();
+
+		verify(repository, times(1)).findAllById(any());
+	}
+
+	@Test
+	void ignoresJumpsTooLargeToBeConcurrentTransactions() {
+		UserChangeLogPoller poller = started(60_000);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(0L)).thenReturn(List.of(change(5_000)));
+
+		poller.poll();
+		poller.poll();
+
+		verify(repository, never()).findAllById(any());
+	}
+
+	@Test
+	void retriesFromTheSameSequenceAfterAFailure() {
+		UserChangeLogPoller poller = started(60_000);
+		when(repository.findTop500BySequenciaGreaterThanOrderBySequenciaAsc(0L))
+				.thenThrow(new IllegalStateException("database down"))
+				.thenReturn(List.of(change(1)));
+
+		poller.poll();
+		poller.poll();
+
+		verify(registry).apply(sequencia(1));
+	}
+
+	private UserChangeLogPoller started(long gapTimeoutMillis) {
+		when(repository.findFirstByOcorridoEmGreaterThanEqualOrderBySequenciaAsc(anyLong())).thenReturn(Optional.empty());
+		when(repository.findTopByOrderBySequenciaDesc()).thenReturn(Optional.empty());
+		UserChangeLogPoller poller = poller(gapTimeoutMillis);
+		poller.start();
+		return poller;
+	}
+
+	private UserChangeLogPoller poller(long gapTimeoutMillis) {
+		return new UserChangeLogPoller(repository, registry, 60_000, false, 0, gapTimeoutMillis);
+	}
+
+	private static List<UsuarioAlteracao> range(long from, long to) {
+		List<UsuarioAlteracao> changes = new ArrayList<>();
+		for (long sequencia = from; sequencia <= to; sequencia++) {
+			changes.add(change(sequencia));
+		}
+		return changes;
+	}
+
+	private static UsuarioAlteracao sequencia(long sequencia) {
+		return argThat(alteracao -> alteracao.getSequencia() == sequencia);
+	}
+
+	private static UsuarioAlteracao change(long sequencia) {
+		UsuarioAlteracao alteracao = new UsuarioAlteracao()
+				.setEmail("a@x.com")
+				.setTipo(UsuarioAlteracao.Tipo.SENHA_ALTERADA)
+				.setVersao(1);
+		ReflectionTestUtils.setField(alteracao, "sequencia", sequencia);
+		return alteracao;
+	}
+}
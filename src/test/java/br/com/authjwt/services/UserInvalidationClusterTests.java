@@ -0,0 +1,103 @@
+package br.com.authjwt.services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.authjwt.AuthApiApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two application nodes sharing one database, as in a cluster behind a load balancer.
+class UserInvalidationClusterTests {
+
+	private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+	private static final String EMAIL = "cluster@x.com";
+
+	private static ConfigurableApplicationContext nodeA;
+	private static ConfigurableApplicationContext nodeB;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	@BeforeAll
+	static void startNodes() {
+		nodeA = node("create");
+		nodeB = node("none");
+	}
+
+	@AfterAll
+	static void stopNodes() {
+		nodeB.close();
+		nodeA.close();
+	}
+
+	@Test
+	void passwordChangeOnOneNodeRevokesSessionsOnTheOther() throws Exception {
+		assertEquals(200, post(nodeA, "/auth/signup", "{\"email\":\"" + EMAIL + "\",\"password\":\"old\",\"nomeCompleto\":\"Cluster\"}").statusCode());
+		String oldToken = login(nodeA, "old");
+		assertEquals(200, me(nodeB, oldToken));
+
+		nodeA.getBean(AuthenticationService.class).changePassword(EMAIL, "new");
+
+		String newToken = login(nodeA, "new");
+		assertEquals(200, me(nodeB, newToken)); // Accepted even before node B has read the change.
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (me(nodeB, oldToken) != 403) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("node B still accepts the revoked token");
+			}
+			Thread.sleep(50);
+		}
+
+		assertEquals(403, me(nodeA, oldToken));
+		assertEquals(200, me(nodeA, newToken));
+		assertEquals(200, me(nodeB, newToken));
+		assertEquals(200, me(nodeB, login(nodeB, "new")));
+	}
+
+	private String login(ConfigurableApplicationContext node, String password) throws IOException, InterruptedException {
+		HttpResponse<String> response = post(node, "/auth/login", "{\"email\":\"" + EMAIL + "\",\"password\":\"" + password + "\"}");
+		assertEquals(200, response.statusCode(), response.body());
+		Matcher matcher = TOKEN.matcher(response.body());
+		matcher.find();
+		return matcher.group(1);
+	}
+
+	private int me(ConfigurableApplicationContext node, String token) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri(node, "/users/me")).header("Authorization", "Bearer " + token).GET().build();
+		return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private HttpResponse<String> post(ConfigurableApplicationContext node, String path, String body) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri(node, path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return http.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static URI uri(ConfigurableApplicationContext node, String path) {
+		return URI.create("http://localhost:" + node.getEnvironment().getProperty("local.server.port") + path);
+	}
+
+	private static ConfigurableApplicationContext node(String ddlAuto) {
+		return new SpringApplicationBuilder(AuthApiApplication.class)
+				.profiles("test")
+				.run( // Command-line arguments take precedence over application.properties.
+						"--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1;MODE=MySQL",
+						"--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+						"--server.port=0",
+						"--security.invalidation.poll-interval-ms=100");
+	}
+}
@@ -0,0 +1,146 @@
+package br.com.authjwt.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.entities.UsuarioAlteracao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UserInvalidationRegistryTests {
+
+	private static final String EMAIL = "a@x.com";
+
+	private final CredentialVerificationCache credentialCache = mock(CredentialVerificationCache.class);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void revokesTokensBelowTheLoggedVersion() {
+		UserInvalidationRegistry registry = registry(60_000);
+
+		assertFalse(registry.isRevoked(EMAIL, 0));
+
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 1));
+
+		assertTrue(registry.isRevoked(EMAIL, 0));
+		assertFalse(registry.isRevoked(EMAIL, 1)); // A re-login after the change is accepted, whatever the clocks say.
+		assertFalse(registry.isRevoked("b@x.com", 0));
+	}
+
+	@Test
+	void keepsTheHighestVersionWhenChangesArriveOutOfOrder() {
+		UserInvalidationRegistry registry = registry(60_000);
+
+		registry.apply(change(UsuarioAlteracao.Tipo.PAPEIS_ALTERADOS, 3));
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 2));
+
+		assertTrue(registry.isRevoked(EMAIL, 2));
+		assertFalse(registry.isRevoked(EMAIL, 3));
+	}
+
+	@Test
+	void expiresRevocationsOlderThanTheSessionHorizon() {
+		UserInvalidationRegistry registry = registry(60_000);
+		long now = System.currentTimeMillis();
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 1).setOcorridoEm(now - 3_600_000));
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 1).setEmail("b@x.com"));
+
+		registry.expirarRevogacoes(now - 60_000);
+
+		assertFalse(registry.isRevoked(EMAIL, 0)); // Every token issued before the old change has expired.
+		assertTrue(registry.isRevoked("b@x.com", 0));
+	}
+
+	@Test
+	void aLaterChangeKeepsTheRevocation() {
+		UserInvalidationRegistry registry = registry(60_000);
+		long now = System.currentTimeMillis();
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 2));
+		registry.apply(change(UsuarioAlteracao.Tipo.PAPEIS_ALTERADOS, 1).setOcorridoEm(now - 3_600_000)); // Arrives late.
+
+		registry.expirarRevogacoes(now - 60_000);
+
+		assertTrue(registry.isRevoked(EMAIL, 1));
+	}
+
+	@Test
+	void newUsersDoNotRevokeAnything() {
+		UserInvalidationRegistry registry = registry(60_000);
+
+		registry.apply(change(UsuarioAlteracao.Tipo.CRIADO, 0));
+
+		assertFalse(registry.isRevoked(EMAIL, 0));
+	}
+
+	@Test
+	void cachesLoadedUsersUntilAChangeIsApplied() {
+		UserInvalidationRegistry registry = registry(60_000);
+
+		UserDetails first = registry.loadUser(EMAIL, this::load);
+		assertSame(first, registry.loadUser(EMAIL, this::load));
+		assertEquals(1, loads.get());
+
+		registry.apply(change(UsuarioAlteracao.Tipo.SENHA_ALTERADA, 1));
+
+		registry.loadUser(EMAIL, this::load);
+		assertEquals(2, loads.get());
+		verify(credentialCache).invalidar(EMAIL);
+	}
+
+	@Test
+	void doesNotCacheAUserLoadedWhileAChangeWasApplied() {
+		UserInvalidationRegistry registry = registry(60_000);
+
+		UserDetails stale = registry.loadUser(EMAIL, email -> {
+			registry.apply(change(UsuarioAlteracao.Tipo.PAPEIS_ALTERADOS, 1)); // Applied by the poller while the database read is in flight.
+			return load(email);
+		});
+
+		UserDetails fresh = registry.loadUser(EMAIL, this::load);
+		assertEquals(2, loads.get());
+		assertTrue(stale != fresh);
+	}
+
+	@Test
+	void reloadsUsersAfterTheTtl() {
+		UserInvalidationRegistry registry = registry(0);
+
+		registry.loadUser(EMAIL, this::load);
+		registry.loadUser(EMAIL, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void boundsTheNumberOfCachedUsers() {
+		UserInvalidationRegistry registry = new UserInvalidationRegistry(credentialCache, 2, 60_000);
+
+		registry.loadUser("a@x.com", this::load);
+		registry.loadUser("b@x.com", this::load);
+		registry.loadUser("c@x.com", this::load);
+		registry.loadUser("a@x.com", this::load);
+
+		assertEquals(4, loads.get());
+	}
+
+	private UserInvalidationRegistry registry(long ttlMillis) {
+		return new UserInvalidationRegistry(credentialCache, 10_000, ttlMillis);
+	}
+
+	private UserDetails load(String email) {
+		loads.incrementAndGet();
+		return new Usuario().setEmail(email);
+	}
+
+	private static UsuarioAlteracao change(UsuarioAlteracao.Tipo tipo, int versao) {
+		return new UsuarioAlteracao().setEmail(EMAIL).setTipo(tipo).setVersao(versao).setOcorridoEm(System.currentTimeMillis());
+	}
+}
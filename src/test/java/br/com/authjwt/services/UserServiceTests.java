@@ -0,0 +1,128 @@
+package br.com.authjwt.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.authjwt.entities.Usuario;
+import br.com.authjwt.repositories.UserRepository;
+import br.com.authjwt.responses.UserSummaryResponse;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void listsEmailMatchesBeforeNameMatchesWithoutDuplicates() {
+		save("Zélia Ana", "ana@x.com");
+		save("Ana Souza", "souza@x.com");
+		save("Anabela", "anabela@x.com");
+		save("Bruno", "bruno@x.com");
+
+		Slice<UserSummaryResponse> slice = userService.search("ANA", 0, 20);
+
+		assertEquals(List.of("ana@x.com", "anabela@x.com", "souza@x.com"), emails(slice));
+		assertFalse(slice.hasNext());
+	}
+
+	@Test
+	void ignoresAccentsAndCase() {
+		save("José", "jose@x.com");
+
+		assertEquals(List.of("jose@x.com"), emails(userService.search("JOSÉ", 0, 20)));
+	}
+
+	@Test
+	void pagesAcrossBothQueries() {
+		save("Carla", "carla1@x.com");
+		save("Carla", "carla2@x.com");
+		save("Carla Dias", "dias@x.com");
+		save("Carlos", "zz@x.com");
+
+		Slice<UserSummaryResponse> first = userService.search("carl", 0, 3);
+		Slice<UserSummaryResponse> second = userService.search("carl", 1, 3);
+
+		assertEquals(List.of("carla1@x.com", "carla2@x.com", "dias@x.com"), emails(first));
+		assertTrue(first.hasNext());
+		assertEquals(List.of("zz@x.com"), emails(second));
+		assertFalse(second.hasNext());
+	}
+
+	@Test
+	void treatsLikeWildcardsLiterally() {
+		save("Ana", "ana@x.com");
+
+		assertTrue(userService.search("%", 0, 20).isEmpty());
+		assertTrue(userService.search("_na", 0, 20).isEmpty());
+		assertTrue(userService.search("   ", 0, 20).isEmpty());
+	}
+
+	@Test
+	void backfillsInBatches() {
+		for (int i = 0; i < 1203; i++) {
+			jdbcTemplate.update("insert into usuario (id, nome_completo, email, password, papeis) values (?, ?, ?, 'x', 1)",
+					100_000 + i, "Légado " + i, "legado" + i + "@x.com");
+		}
+
+		assertEquals(1203, userService.backfillSearchColumns());
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from usuario where email_normalizado is null or nome_normalizado is null", Integer.class));
+		assertEquals(20, userService.search("legado 1", 0, 20).getNumberOfElements());
+		assertEquals(0, userService.backfillSearchColumns());
+	}
+
+	@Test
+	void concurrentBackfillsOnlyWriteTheSearchColumnsOnce() throws Exception {
+		for (int i = 0; i < 1203; i++) {
+			jdbcTemplate.update("insert into usuario (id, nome_completo, email, password, papeis, versao_sessao) values (?, ?, ?, 'x', 3, 7)",
+					200_000 + i, "Légado " + i, "legado" + i + "@x.com");
+		}
+
+		ExecutorService nodes = Executors.newFixedThreadPool(2);
+		try {
+			Future<Long> first = nodes.submit(userService::backfillSearchColumns);
+			Future<Long> second = nodes.submit(userService::backfillSearchColumns);
+
+			assertEquals(1203, first.get() + second.get());
+		} finally {
+			nodes.shutdownNow();
+		}
+		assertEquals(1203, jdbcTemplate.queryForObject(
+				"select count(*) from usuario where password = 'x' and papeis = 3 and versao_sessao = 7 and nome_normalizado is not null", Integer.class));
+	}
+
+	private void save(String nome, String email) {
+		userRepository.save(new Usuario().setnomeCompleto(nome).setEmail(email).setPassword("x"));
+	}
+
+	private static List<String> emails(Slice<UserSummaryResponse> slice) {
+		return slice.getContent().stream().map(UserSummaryResponse::getEmail).toList();
+	}
+}